@@ -18,6 +18,11 @@ plugins {
     id("org.spongepowered.gradle.vanilla")
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output + sourceSets["main"].compileClasspath
+    runtimeClasspath += sourceSets["main"].output + sourceSets["main"].runtimeClasspath
+}
+
 dependencies {
     implementation("org.projectlombok", "lombok", "1.18.20")
 
@@ -28,6 +33,9 @@ dependencies {
     implementation("org.cloudburstmc.protocol", "bedrock-connection", "3.0.0.Beta1-SNAPSHOT")
 
     annotationProcessor("org.projectlombok", "lombok", "1.18.20")
+
+    "jmhImplementation"("org.openjdk.jmh", "jmh-core", "1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh", "jmh-generator-annprocess", "1.37")
 }
 
 configure<JavaPluginExtension> {
@@ -47,6 +55,20 @@ minecraft {
         }
 }
 
+// Runs the benchmarks in src/jmh. JMH options can be passed through, e.g. --args="MapColorLookup -prof gc"
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+}
+
+// Times every generator phase end to end in forked JVMs and compares against benchmarks/baseline.json, see GenerationBenchmark
+tasks.register<JavaExec>("generationBenchmark") {
+    group = "benchmark"
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.geysermc.generator.GenerationBenchmark")
+}
+
 val samplesTask = tasks.register<DownloadFileTask>("downloadBedrockSamples") {
     url.set("https://github.com/Mojang/bedrock-samples/archive/refs/tags/v${bedrockResourcePackVersion}.zip")
     destination.set(bedrockSamples)
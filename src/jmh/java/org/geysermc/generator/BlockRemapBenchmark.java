@@ -0,0 +1,133 @@
+package org.geysermc.generator;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
+import org.geysermc.generator.state.StateMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-state steps of generating blocks.json for every state of one block, so a change to one of them
+ * shows up in the block families it affects. The families range from a block without properties to blocks with
+ * many states or several state mappers. Run with -prof gc to also see how much each step allocates per state.
+ *
+ * Needs mappings/blocks.json and the block palette, as a generator run does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockRemapBenchmark {
+
+    @Param({"minecraft:stone", "minecraft:oak_stairs", "minecraft:oak_hanging_sign", "minecraft:chiseled_bookshelf", "minecraft:redstone_wire"})
+    public String block;
+
+    private MappingsGenerator generator;
+    private Map<String, List<String>> stateKeys;
+    private List<BlockState> states;
+    private String[] identifiers;
+    private String[] properties;
+    private JavaBlockRemap[] javaRemaps;
+    private List<List<Double>>[] collisionBoxes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws IOException {
+        Util.initialize();
+        generator = new MappingsGenerator();
+        generator.loadBlockInputs();
+        stateKeys = MappingsGenerator.getStateKeys(BlockPalette.load(PaletteSet.latest(PaletteSet.find()).blockPalette()));
+
+        Block family = BuiltInRegistries.BLOCK.get(new ResourceLocation(block));
+        states = family.getStateDefinition().getPossibleStates();
+        identifiers = states.stream().map(generator::blockStateToString).toArray(String[]::new);
+        properties = family.getStateDefinition().getProperties().stream().map(Property::getName).toArray(String[]::new);
+
+        // Fill the collision list as a full run would, so interning searches a list of realistic length
+        for (BlockState state : generator.getAllStates()) {
+            MappingsGenerator.getCollisionIndex(MappingsGenerator.getCollisionBoxes(state));
+        }
+        javaRemaps = new JavaBlockRemap[states.size()];
+        collisionBoxes = new List[states.size()];
+        for (int i = 0; i < states.size(); i++) {
+            javaRemaps[i] = generator.getJavaRemapBlock(states.get(i), identifiers[i]);
+            collisionBoxes[i] = MappingsGenerator.getCollisionBoxes(states.get(i));
+        }
+    }
+
+    /**
+     * Both halves of mapping a block state, as generateBlocks does for the palettes blocks.json is mapped against
+     */
+    @Benchmark
+    public void remap(Blackhole blackhole) {
+        for (int i = 0; i < identifiers.length; i++) {
+            blackhole.consume(generator.getRemapBlock(generator.getJavaRemapBlock(states.get(i), identifiers[i]), stateKeys));
+        }
+    }
+
+    @Benchmark
+    public void javaRemap(Blackhole blackhole) {
+        for (int i = 0; i < identifiers.length; i++) {
+            blackhole.consume(generator.getJavaRemapBlock(states.get(i), identifiers[i]));
+        }
+    }
+
+    /**
+     * The part that runs once per palette
+     */
+    @Benchmark
+    public void bedrockRemap(Blackhole blackhole) {
+        for (JavaBlockRemap javaRemap : javaRemaps) {
+            blackhole.consume(generator.getRemapBlock(javaRemap, stateKeys));
+        }
+    }
+
+    @Benchmark
+    public void blockStateToString(Blackhole blackhole) {
+        for (BlockState state : states) {
+            blackhole.consume(generator.blockStateToString(state));
+        }
+    }
+
+    /**
+     * Looks up every property of every state, as the state mappers of a block do
+     */
+    @Benchmark
+    public void getStateValue(Blackhole blackhole) {
+        for (String identifier : identifiers) {
+            for (String property : properties) {
+                blackhole.consume(StateMapper.getStateValue(identifier, property));
+            }
+        }
+    }
+
+    /**
+     * Finding the collision index of shapes that are already in the list, which is the common case
+     */
+    @Benchmark
+    public void collisionIndex(Blackhole blackhole) {
+        for (List<List<Double>> boxes : collisionBoxes) {
+            blackhole.consume(MappingsGenerator.getCollisionIndex(boxes));
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.geysermc.generator;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs bootstrap and every {@link GeneratorPhase} end to end, several times, each time in a new JVM so that every run
+ * starts cold like a real one. For every phase it records the wall-clock time, the collections and time spent in GC,
+ * the bytes allocated and the peak heap, and writes the median of each over all runs to benchmarks/results.json.
+ *
+ * The results are compared against benchmarks/baseline.json, and the harness exits with status 1 if the time or
+ * allocation of a phase grew by more than the threshold, or if there is no baseline. With --update-baseline the
+ * results become the baseline instead. Baselines are only comparable on the same machine, so none is committed:
+ * measure one on the machine that checks against it, before making a change.
+ *
+ * Each run works in its own scratch directory with a copy of the inputs, so the runs leave mappings/ and the rest of
+ * the working tree alone, and no run starts from the output of the one before it. Usage:
+ * {@code [--runs=<n>] [--threshold=<fraction>] [--update-baseline]}, default 5 runs and 0.1.
+ */
+public class GenerationBenchmark {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final File DIRECTORY = new File("benchmarks");
+    private static final File RESULTS = new File(DIRECTORY, "results.json");
+    private static final File BASELINE = new File(DIRECTORY, "baseline.json");
+
+    private static final String CHILD = "--child=";
+    /**
+     * What a generator run reads from its working directory, copied to the scratch directory of every run
+     */
+    private static final String[] INPUTS = {"mappings", "palettes", "bedrockresourcepack.zip"};
+    private static final String[] METRICS = {"time_ms", "gc_count", "gc_time_ms", "allocated_mb", "peak_heap_mb"};
+    private static final String[] COMPARED_METRICS = {"time_ms", "allocated_mb"};
+    /**
+     * Changes smaller than this are noise, however large they are relatively, for example in a phase taking 20 ms
+     */
+    private static final double MINIMUM_TIME_CHANGE_MS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int runs = 5;
+        double threshold = 0.1;
+        boolean updateBaseline = false;
+        for (String arg : args) {
+            if (arg.startsWith(CHILD)) {
+                runChild(new File(arg.substring(CHILD.length())));
+                return;
+            } else if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--threshold=")) {
+                threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            } else if (arg.equals("--update-baseline")) {
+                updateBaseline = true;
+            }
+        }
+
+        DIRECTORY.mkdirs();
+        List<JsonObject> samples = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            System.out.println("Run " + run + " of " + runs);
+            samples.add(fork(run));
+        }
+
+        JsonObject results = new JsonObject();
+        results.addProperty("runs", runs);
+        results.addProperty("java_version", System.getProperty("java.version"));
+        results.addProperty("processors", Runtime.getRuntime().availableProcessors());
+        JsonObject phases = new JsonObject();
+        for (String phase : samples.get(0).keySet()) {
+            JsonObject medians = new JsonObject();
+            for (String metric : METRICS) {
+                double[] values = samples.stream().mapToDouble(sample -> sample.getAsJsonObject(phase).get(metric).getAsDouble()).toArray();
+                medians.addProperty(metric, median(values));
+            }
+            phases.add(phase, medians);
+        }
+        results.add("phases", phases);
+        write(RESULTS, results);
+        System.out.println("Wrote the medians of " + runs + " runs to " + RESULTS.getPath());
+
+        if (updateBaseline) {
+            Files.copy(RESULTS.toPath(), BASELINE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("These results are now the baseline in " + BASELINE.getPath());
+            return;
+        }
+        if (!BASELINE.exists()) {
+            // Adopting the results silently would let a regression through as the new baseline
+            System.out.println("ERROR: There is no baseline to compare to in " + BASELINE.getPath() + "! None is committed, since baselines only hold on the machine they were measured on. Measure one on this machine before making your change with --update-baseline.");
+            System.exit(1);
+        }
+
+        JsonObject baseline;
+        try (Reader reader = new FileReader(BASELINE)) {
+            baseline = JsonParser.parseReader(reader).getAsJsonObject().getAsJsonObject("phases");
+        }
+        if (compare(baseline, phases, threshold)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return whether any phase regressed
+     */
+    private static boolean compare(JsonObject baseline, JsonObject phases, double threshold) {
+        boolean regressed = false;
+        System.out.printf("%-20s %-14s %12s %12s %8s%n", "phase", "metric", "baseline", "current", "change");
+        for (String phase : phases.keySet()) {
+            if (!baseline.has(phase)) {
+                continue;
+            }
+            for (String metric : COMPARED_METRICS) {
+                double before = baseline.getAsJsonObject(phase).get(metric).getAsDouble();
+                double after = phases.getAsJsonObject(phase).get(metric).getAsDouble();
+                double change = before == 0 ? 0 : (after - before) / before;
+                boolean significant = !metric.equals("time_ms") || after - before >= MINIMUM_TIME_CHANGE_MS;
+                boolean phaseRegressed = change > threshold && significant;
+                regressed |= phaseRegressed;
+                System.out.printf("%-20s %-14s %12.1f %12.1f %+7.1f%%%s%n", phase, metric, before, after, change * 100, phaseRegressed ? "  REGRESSED" : "");
+            }
+        }
+        if (regressed) {
+            System.out.println("ERROR: At least one phase regressed by more than " + Math.round(threshold * 100) + "% against " + BASELINE.getPath());
+        }
+        return regressed;
+    }
+
+    private static JsonObject fork(int run) throws IOException, InterruptedException {
+        File output = File.createTempFile("generation-benchmark", ".json");
+        output.deleteOnExit();
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        // The run starts in another directory, so the class path must not depend on this one
+        command.add(Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(entry -> new File(entry).getAbsolutePath())
+                .collect(Collectors.joining(File.pathSeparator)));
+        command.add(GenerationBenchmark.class.getName());
+        command.add(CHILD + output.getAbsolutePath());
+
+        Path scratch = Files.createTempDirectory("generation-benchmark");
+        try {
+            for (String input : INPUTS) {
+                copy(Path.of(input), scratch.resolve(input));
+            }
+
+            // The generator is chatty, so keep its output out of the way but available
+            File log = new File(DIRECTORY, "run_" + run + ".log");
+            Process process = new ProcessBuilder(command).directory(scratch.toFile()).redirectErrorStream(true).redirectOutput(log).start();
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Run " + run + " failed, see " + log.getPath());
+            }
+        } finally {
+            delete(scratch);
+        }
+        try (Reader reader = new FileReader(output)) {
+            return JsonParser.parseReader(reader).getAsJsonObject();
+        }
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        if (!Files.exists(source)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path copy = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(path, copy);
+                }
+            }
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            // Children before their parents
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static void runChild(File output) throws IOException {
+        Map<String, JsonObject> results = new LinkedHashMap<>();
+        Probe probe = new Probe();
+        Util.initialize();
+        results.put("bootstrap", probe.finish());
+
+        MappingsGenerator generator = new MappingsGenerator();
+        for (GeneratorPhase phase : GeneratorPhase.values()) {
+            probe = new Probe();
+            phase.run(generator);
+            results.put(phase.getName(), probe.finish());
+        }
+
+        JsonObject json = new JsonObject();
+        results.forEach(json::add);
+        write(output, json);
+    }
+
+    private static void write(File file, JsonObject json) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            GSON.toJson(json, writer);
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Measures from its creation until {@link #finish()}. Allocation is summed over every live thread, since the
+     * phases work on the common pool too; threads that end in between are missed, which the generator doesn't do.
+     */
+    private static final class Probe {
+        private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final long start;
+        private final long gcCount;
+        private final long gcTime;
+        private final Map<Long, Long> allocated = new LinkedHashMap<>();
+
+        private Probe() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                }
+            }
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            for (int i = 0; i < ids.length; i++) {
+                allocated.put(ids[i], bytes[i]);
+            }
+            gcCount = ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+            gcTime = ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+            start = System.nanoTime();
+        }
+
+        private JsonObject finish() {
+            long time = System.nanoTime() - start;
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            long allocatedBytes = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] != -1) {
+                    allocatedBytes += bytes[i] - allocated.getOrDefault(ids[i], 0L);
+                }
+            }
+            // The pools peak at different times, so this is an upper bound of the peak heap
+            long peakHeap = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peakHeap += pool.getPeakUsage().getUsed();
+                }
+            }
+
+            JsonObject result = new JsonObject();
+            result.addProperty("time_ms", time / 1_000_000.0);
+            result.addProperty("gc_count", ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum() - gcCount);
+            result.addProperty("gc_time_ms", ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum() - gcTime);
+            result.addProperty("allocated_mb", allocatedBytes / (1024.0 * 1024.0));
+            result.addProperty("peak_heap_mb", peakHeap / (1024.0 * 1024.0));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.geysermc.generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the closest map color for a 128x128 map image through the lookup table against
+ * searching the whole palette for every pixel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapColorLookupBenchmark {
+
+    private MapColorLookup lookup;
+    private int[] pixels;
+
+    @Setup
+    public void setup() {
+        lookup = new MapColorLookup(MapColorLookup.createPalette());
+        pixels = new Random(0).ints(128 * 128, 0, 0x1000000).toArray();
+    }
+
+    @Benchmark
+    public void lookupTable(Blackhole blackhole) {
+        for (int pixel : pixels) {
+            blackhole.consume(lookup.lookup(pixel));
+        }
+    }
+
+    @Benchmark
+    public void bruteForce(Blackhole blackhole) {
+        for (int pixel : pixels) {
+            blackhole.consume(lookup.nearest(pixel));
+        }
+    }
+}
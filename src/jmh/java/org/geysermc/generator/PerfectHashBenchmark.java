@@ -0,0 +1,83 @@
+package org.geysermc.generator;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving every block state string from blocks.json to its state ID through the perfect hash
+ * against a HashMap. The queried strings are separate instances from the keys, so both sides compare the
+ * full string on a hit, as they would for strings parsed from commands or NBT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerfectHashBenchmark {
+
+    private PerfectHash perfectHash;
+    private Map<String, Integer> hashMap;
+    private String[] queries;
+
+    @Setup
+    public void setup() throws IOException {
+        File mappings = new File("mappings/blocks.json");
+        if (!mappings.exists()) {
+            throw new IllegalStateException("Could not find mappings/blocks.json! Run the generator first.");
+        }
+
+        JsonObject blocks;
+        try (Reader reader = new FileReader(mappings)) {
+            blocks = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+        List<String> keys = new ArrayList<>(blocks.keySet());
+
+        perfectHash = PerfectHash.build(keys);
+        hashMap = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            hashMap.put(keys.get(i), i);
+        }
+
+        List<String> shuffled = new ArrayList<>(keys);
+        Collections.shuffle(shuffled, new Random(0));
+        queries = shuffled.stream().map(String::new).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public void perfectHash(Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(perfectHash.get(query));
+        }
+    }
+
+    @Benchmark
+    public void hashMap(Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(hashMap.get(query));
+        }
+    }
+}
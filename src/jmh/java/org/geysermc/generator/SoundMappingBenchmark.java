@@ -0,0 +1,72 @@
+package org.geysermc.generator;
+
+import com.google.gson.JsonParser;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.sounds.SoundEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures guessing the Bedrock playsound of every Java sound event, which is mostly string rewriting. Run with
+ * -prof gc to also see how much it allocates.
+ *
+ * Needs bedrockresourcepack.zip, as a generator run does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoundMappingBenchmark {
+
+    private MappingsGenerator generator;
+    private Set<String> bedrockSounds;
+    private String[] javaSounds;
+    private SoundEntry[] entries;
+
+    @Setup
+    public void setup() throws IOException {
+        Util.initialize();
+        generator = new MappingsGenerator();
+        try (FileSystem fileSystem = FileSystems.newFileSystem(Paths.get("bedrockresourcepack.zip"));
+             InputStream stream = fileSystem.provider().newInputStream(fileSystem.getPath("sounds/sound_definitions.json"))) {
+            String json = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            bedrockSounds = new HashSet<>(JsonParser.parseString(json).getAsJsonObject().getAsJsonObject("sound_definitions").keySet());
+        }
+
+        javaSounds = new String[BuiltInRegistries.SOUND_EVENT.size()];
+        entries = new SoundEntry[javaSounds.length];
+        int i = 0;
+        for (SoundEvent soundEvent : BuiltInRegistries.SOUND_EVENT) {
+            javaSounds[i] = BuiltInRegistries.SOUND_EVENT.getKey(soundEvent).getPath();
+            entries[i++] = new SoundEntry(null, null, -1, null, false);
+        }
+    }
+
+    @Benchmark
+    public void updatePlaySound(Blackhole blackhole) {
+        for (int i = 0; i < javaSounds.length; i++) {
+            blackhole.consume(generator.updatePlaySound(entries[i], javaSounds[i], bedrockSounds));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.geysermc.generator;
+
+import org.geysermc.generator.output.StringTable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Writes the binary tables that sit alongside the JSON mappings.
+ *
+ * Every table starts with a four character magic and a format version, followed by
+ * table-specific data. All values are big-endian, as written by {@link DataOutputStream}.
+ */
+public final class BinaryTableWriter {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private BinaryTableWriter() {
+    }
+
+    public static void write(File file, String magic, Body body) throws IOException {
+        byte[] magicBytes = magic.getBytes(StandardCharsets.US_ASCII);
+        if (magicBytes.length != 4) {
+            throw new IllegalArgumentException("Table magic must be four characters: " + magic);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.write(magicBytes);
+            out.writeInt(FORMAT_VERSION);
+            body.write(out);
+        }
+    }
+
+    /**
+     * Writes the length of the array followed by its values.
+     */
+    public static void writeIntArray(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Writes the amount of strings in the table, followed by each string in index order.
+     */
+    public static void writeStringTable(DataOutputStream out, StringTable strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String string : strings.getStrings()) {
+            out.writeUTF(string);
+        }
+    }
+
+    /**
+     * Writes the bitset as exactly the given amount of longs, without a length prefix.
+     */
+    public static void writeBitSet(DataOutputStream out, BitSet bitSet, int words) throws IOException {
+        long[] values = Arrays.copyOf(bitSet.toLongArray(), words);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
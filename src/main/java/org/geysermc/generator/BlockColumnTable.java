@@ -0,0 +1,174 @@
+package org.geysermc.generator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.material.PushReaction;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The scalar attributes of every block state from blocks.json, stored column by column so each attribute
+ * is one contiguous array indexed by Java state ID.
+ *
+ * After the magic and version, the header has the state count, the column count, and for every column its
+ * name, type, byte offset from the start of the file, and byte length. Every column starts on an 8 byte
+ * boundary so the file can be memory-mapped. Bitset columns are stored as longs, with state N at bit
+ * (N % 64) of long (N / 64).
+ */
+public class BlockColumnTable {
+
+    public static final byte TYPE_FLOAT = 0;
+    public static final byte TYPE_SHORT = 1;
+    public static final byte TYPE_BYTE = 2;
+    public static final byte TYPE_INT = 3;
+    public static final byte TYPE_BITSET = 4;
+
+    private final int stateCount;
+
+    private final float[] hardness;
+    private final short[] collisionIndex;
+    private final byte[] pistonBehavior;
+    private final int[] pickItem;
+    private final byte[] bedColor;
+    private final byte[] bannerColor;
+    private final byte[] notePitch;
+    private final BitSet canBreakWithHand = new BitSet();
+    private final BitSet hasBlockEntity = new BitSet();
+    private final BitSet pottable = new BitSet();
+
+    public BlockColumnTable(int stateCount) {
+        this.stateCount = stateCount;
+        this.hardness = new float[stateCount];
+        this.collisionIndex = new short[stateCount];
+        this.pistonBehavior = new byte[stateCount];
+        this.pickItem = new int[stateCount];
+        this.bedColor = new byte[stateCount];
+        this.bannerColor = new byte[stateCount];
+        this.notePitch = new byte[stateCount];
+    }
+
+    /**
+     * Adds the attributes of one block state.
+     *
+     * @param stateId the Java block state ID
+     * @param entry the state's entry in blocks.json
+     */
+    public void add(int stateId, JsonObject entry) {
+        hardness[stateId] = entry.get("block_hardness").getAsFloat();
+        collisionIndex[stateId] = entry.get("collision_index").getAsShort();
+
+        JsonElement piston = entry.get("piston_behavior");
+        PushReaction pushReaction = piston != null ? PushReaction.valueOf(piston.getAsString().toUpperCase(Locale.ROOT)) : PushReaction.NORMAL;
+        pistonBehavior[stateId] = (byte) pushReaction.ordinal();
+
+        // -1 means the pick item is the block's own item
+        JsonElement pick = entry.get("pick_item");
+        pickItem[stateId] = pick != null ? BuiltInRegistries.ITEM.getId(BuiltInRegistries.ITEM.get(new ResourceLocation(pick.getAsString()))) : -1;
+
+        bedColor[stateId] = getByte(entry, "bed_color");
+        bannerColor[stateId] = getByte(entry, "banner_color");
+        notePitch[stateId] = getByte(entry, "note_pitch");
+
+        canBreakWithHand.set(stateId, entry.get("can_break_with_hand").getAsBoolean());
+        hasBlockEntity.set(stateId, getBoolean(entry, "has_block_entity"));
+        pottable.set(stateId, getBoolean(entry, "pottable"));
+    }
+
+    public void write(File file) throws IOException {
+        List<Column> columns = new ArrayList<>();
+
+        ByteBuffer buffer = ByteBuffer.allocate(stateCount * Float.BYTES);
+        buffer.asFloatBuffer().put(hardness);
+        columns.add(new Column("block_hardness", TYPE_FLOAT, buffer.array()));
+
+        buffer = ByteBuffer.allocate(stateCount * Short.BYTES);
+        buffer.asShortBuffer().put(collisionIndex);
+        columns.add(new Column("collision_index", TYPE_SHORT, buffer.array()));
+
+        // Values are the ordinals of PushReaction: normal, destroy, block, ignore, push_only
+        columns.add(new Column("piston_behavior", TYPE_BYTE, pistonBehavior));
+
+        buffer = ByteBuffer.allocate(stateCount * Integer.BYTES);
+        buffer.asIntBuffer().put(pickItem);
+        columns.add(new Column("pick_item", TYPE_INT, buffer.array()));
+
+        // -1 where the state has no such value
+        columns.add(new Column("bed_color", TYPE_BYTE, bedColor));
+        columns.add(new Column("banner_color", TYPE_BYTE, bannerColor));
+        columns.add(new Column("note_pitch", TYPE_BYTE, notePitch));
+
+        columns.add(new Column("can_break_with_hand", TYPE_BITSET, toBytes(canBreakWithHand)));
+        columns.add(new Column("has_block_entity", TYPE_BITSET, toBytes(hasBlockEntity)));
+        columns.add(new Column("pottable", TYPE_BITSET, toBytes(pottable)));
+
+        // Magic + version + state count + column count, then each column's name, type, offset and length
+        int headerLength = 4 + 4 + 4 + 4;
+        for (Column column : columns) {
+            headerLength += 2 + column.name.length() + 1 + 4 + 4;
+        }
+
+        int[] offsets = new int[columns.size()];
+        int offset = align(headerLength);
+        for (int i = 0; i < columns.size(); i++) {
+            offsets[i] = offset;
+            offset = align(offset + columns.get(i).data.length);
+        }
+
+        BinaryTableWriter.write(file, "BCOL", out -> {
+            out.writeInt(stateCount);
+            out.writeInt(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                out.writeUTF(column.name);
+                out.writeByte(column.type);
+                out.writeInt(offsets[i]);
+                out.writeInt(column.data.length);
+            }
+
+            for (int i = 0; i < columns.size(); i++) {
+                pad(out, offsets[i]);
+                out.write(columns.get(i).data);
+            }
+        });
+    }
+
+    private byte[] toBytes(BitSet bitSet) {
+        long[] words = Arrays.copyOf(bitSet.toLongArray(), (stateCount + 63) / 64);
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+        buffer.asLongBuffer().put(words);
+        return buffer.array();
+    }
+
+    private static void pad(DataOutputStream out, int offset) throws IOException {
+        while (out.size() < offset) {
+            out.writeByte(0);
+        }
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    private static byte getByte(JsonObject entry, String key) {
+        JsonElement element = entry.get(key);
+        return element != null ? element.getAsByte() : -1;
+    }
+
+    private static boolean getBoolean(JsonObject entry, String key) {
+        JsonElement element = entry.get(key);
+        return element != null && element.getAsBoolean();
+    }
+
+    private record Column(String name, byte type, byte[] data) {
+    }
+}
@@ -0,0 +1,336 @@
+package org.geysermc.generator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.geysermc.generator.state.StateMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Converts the per-state output of blocks.json into a per-block form and back again.
+ *
+ * Each Java block stores the attributes and Bedrock states shared by its states once,
+ * values that only depend on a single Java property under that property, and any remaining
+ * values as sparse exceptions keyed by the index of the state within the block. A null
+ * exception value means that the state does not have that key.
+ */
+public final class BlockMappingsFactorizer {
+
+    private static final String BEDROCK_STATES = "bedrock_states";
+
+    private BlockMappingsFactorizer() {
+    }
+
+    public static JsonObject factorize(JsonObject blocks) {
+        JsonObject factorized = new JsonObject();
+
+        String currentBlock = null;
+        List<String> currentStates = new ArrayList<>();
+        List<JsonObject> currentEntries = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> entry : blocks.entrySet()) {
+            String block = entry.getKey().split("\\[")[0];
+            if (!block.equals(currentBlock)) {
+                if (currentBlock != null) {
+                    factorized.add(currentBlock, factorizeBlock(currentStates, currentEntries));
+                }
+                currentBlock = block;
+                currentStates = new ArrayList<>();
+                currentEntries = new ArrayList<>();
+            }
+            currentStates.add(entry.getKey());
+            currentEntries.add(entry.getValue().getAsJsonObject());
+        }
+        if (currentBlock != null) {
+            factorized.add(currentBlock, factorizeBlock(currentStates, currentEntries));
+        }
+        return factorized;
+    }
+
+    public static JsonObject expand(JsonObject factorized) {
+        JsonObject blocks = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : factorized.entrySet()) {
+            JsonObject block = entry.getValue().getAsJsonObject();
+
+            List<String> properties = new ArrayList<>();
+            List<JsonArray> propertyValues = new ArrayList<>();
+            if (block.has("properties")) {
+                for (Map.Entry<String, JsonElement> property : block.getAsJsonObject("properties").entrySet()) {
+                    properties.add(property.getKey());
+                    propertyValues.add(property.getValue().getAsJsonArray());
+                }
+            }
+
+            int stateCount = 1;
+            for (JsonArray values : propertyValues) {
+                stateCount *= values.size();
+            }
+
+            JsonObject shared = getObject(block, "shared");
+            JsonObject byProperty = getObject(block, "by_property");
+            JsonObject exceptions = getObject(block, "exceptions");
+
+            String[] values = new String[properties.size()];
+            for (int index = 0; index < stateCount; index++) {
+                // The last property changes the fastest, matching the order of the Java state ids
+                int remainder = index;
+                for (int i = properties.size() - 1; i >= 0; i--) {
+                    JsonArray possibleValues = propertyValues.get(i);
+                    values[i] = possibleValues.get(remainder % possibleValues.size()).getAsString();
+                    remainder /= possibleValues.size();
+                }
+
+                JsonObject attributes = new JsonObject();
+                JsonObject states = new JsonObject();
+                merge(shared, attributes, states);
+                for (int i = 0; i < properties.size(); i++) {
+                    JsonObject mappings = getObject(byProperty, properties.get(i));
+                    merge(getObject(mappings, values[i]), attributes, states);
+                }
+                merge(getObject(exceptions, Integer.toString(index)), attributes, states);
+
+                if (states.size() != 0) {
+                    attributes.add(BEDROCK_STATES, states);
+                }
+                blocks.add(toStateString(entry.getKey(), properties, values), attributes);
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Checks that expanding the factorized form results in exactly the given blocks, in the same order.
+     *
+     * @param blocks the per-state block mappings
+     * @param factorized the factorized form of the block mappings
+     * @throws IllegalStateException if the two do not match
+     */
+    public static void verify(JsonObject blocks, JsonObject factorized) {
+        JsonObject expanded = expand(factorized);
+        List<String> expectedKeys = new ArrayList<>(blocks.keySet());
+        List<String> actualKeys = new ArrayList<>(expanded.keySet());
+        if (!expectedKeys.equals(actualKeys)) {
+            throw new IllegalStateException("Factorized block mappings expand to " + actualKeys.size() + " states in a different order than the expected " + expectedKeys.size());
+        }
+        for (String key : expectedKeys) {
+            if (!blocks.get(key).equals(expanded.get(key))) {
+                throw new IllegalStateException("Factorized block mappings expand to " + expanded.get(key) + " for " + key + " instead of " + blocks.get(key));
+            }
+        }
+    }
+
+    private static JsonObject factorizeBlock(List<String> stateStrings, List<JsonObject> entries) {
+        Map<String, List<String>> properties = new LinkedHashMap<>();
+        List<Map<String, String>> stateValues = new ArrayList<>();
+        for (String stateString : stateStrings) {
+            Map<String, String> values = new LinkedHashMap<>();
+            if (stateString.contains("[")) {
+                for (String state : StateMapper.getStates(stateString)) {
+                    String[] parts = state.split("=");
+                    values.put(parts[0], parts[1]);
+                    List<String> possibleValues = properties.computeIfAbsent(parts[0], $ -> new ArrayList<>());
+                    if (!possibleValues.contains(parts[1])) {
+                        possibleValues.add(parts[1]);
+                    }
+                }
+            }
+            stateValues.add(values);
+        }
+
+        List<Map<String, JsonElement>> attributes = new ArrayList<>();
+        List<Map<String, JsonElement>> states = new ArrayList<>();
+        for (JsonObject entry : entries) {
+            Map<String, JsonElement> entryAttributes = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> attribute : entry.entrySet()) {
+                if (!attribute.getKey().equals(BEDROCK_STATES)) {
+                    entryAttributes.put(attribute.getKey(), attribute.getValue());
+                }
+            }
+            attributes.add(entryAttributes);
+
+            Map<String, JsonElement> entryStates = new LinkedHashMap<>();
+            if (entry.has(BEDROCK_STATES)) {
+                for (Map.Entry<String, JsonElement> state : entry.getAsJsonObject(BEDROCK_STATES).entrySet()) {
+                    entryStates.put(state.getKey(), state.getValue());
+                }
+            }
+            states.add(entryStates);
+        }
+
+        JsonObject block = new JsonObject();
+        if (!properties.isEmpty()) {
+            JsonObject propertiesObject = new JsonObject();
+            properties.forEach((property, values) -> {
+                JsonArray array = new JsonArray();
+                values.forEach(array::add);
+                propertiesObject.add(property, array);
+            });
+            block.add("properties", propertiesObject);
+        }
+
+        JsonObject shared = new JsonObject();
+        JsonObject byProperty = new JsonObject();
+        JsonObject exceptions = new JsonObject();
+        factorizeSection(null, attributes, properties.keySet(), stateValues, shared, byProperty, exceptions);
+        factorizeSection(BEDROCK_STATES, states, properties.keySet(), stateValues, shared, byProperty, exceptions);
+
+        if (shared.size() != 0) {
+            block.add("shared", shared);
+        }
+        if (byProperty.size() != 0) {
+            block.add("by_property", byProperty);
+        }
+        if (exceptions.size() != 0) {
+            block.add("exceptions", exceptions);
+        }
+        return block;
+    }
+
+    /**
+     * Sorts every key of one section (the top level attributes, or the Bedrock states) into shared values,
+     * per-property values, or exceptions.
+     */
+    private static void factorizeSection(String section, List<Map<String, JsonElement>> entries, Set<String> properties,
+                                         List<Map<String, String>> stateValues, JsonObject shared, JsonObject byProperty, JsonObject exceptions) {
+        Set<String> keys = new LinkedHashSet<>();
+        entries.forEach(entry -> keys.addAll(entry.keySet()));
+
+        keyLoop:
+        for (String key : keys) {
+            JsonElement first = entries.get(0).get(key);
+            boolean isShared = true;
+            for (Map<String, JsonElement> entry : entries) {
+                if (!Objects.equals(first, entry.get(key))) {
+                    isShared = false;
+                    break;
+                }
+            }
+            if (isShared) {
+                sectionOf(shared, section).add(key, first);
+                continue;
+            }
+
+            for (String property : properties) {
+                Map<String, JsonElement> valueMappings = getPropertyMappings(property, key, entries, stateValues);
+                if (valueMappings != null) {
+                    JsonObject propertyObject = getOrCreate(byProperty, property);
+                    valueMappings.forEach((value, element) -> {
+                        if (element != null) {
+                            sectionOf(getOrCreate(propertyObject, value), section).add(key, element);
+                        }
+                    });
+                    continue keyLoop;
+                }
+            }
+
+            // Share the most common value and only store the states that differ from it
+            JsonElement common = getMostCommon(key, entries);
+            sectionOf(shared, section).add(key, common);
+            for (int i = 0; i < entries.size(); i++) {
+                JsonElement element = entries.get(i).get(key);
+                if (!common.equals(element)) {
+                    // A null value means that the state does not have this key at all
+                    sectionOf(getOrCreate(exceptions, Integer.toString(i)), section).add(key, element == null ? JsonNull.INSTANCE : element);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the value of the key for each value of the property, or null if the key is not determined by the property alone
+     */
+    private static Map<String, JsonElement> getPropertyMappings(String property, String key, List<Map<String, JsonElement>> entries,
+                                                                List<Map<String, String>> stateValues) {
+        Map<String, JsonElement> valueMappings = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            String value = stateValues.get(i).get(property);
+            JsonElement element = entries.get(i).get(key);
+            if (valueMappings.containsKey(value)) {
+                if (!Objects.equals(valueMappings.get(value), element)) {
+                    return null;
+                }
+            } else {
+                valueMappings.put(value, element);
+            }
+        }
+        return valueMappings;
+    }
+
+    private static JsonElement getMostCommon(String key, List<Map<String, JsonElement>> entries) {
+        Map<JsonElement, Integer> counts = new HashMap<>();
+        JsonElement common = null;
+        int commonCount = 0;
+        for (Map<String, JsonElement> entry : entries) {
+            JsonElement element = entry.get(key);
+            if (element == null) {
+                continue;
+            }
+            int count = counts.merge(element, 1, Integer::sum);
+            if (count > commonCount) {
+                common = element;
+                commonCount = count;
+            }
+        }
+        return common;
+    }
+
+    private static void merge(JsonObject source, JsonObject attributes, JsonObject states) {
+        for (Map.Entry<String, JsonElement> entry : source.entrySet()) {
+            if (entry.getKey().equals(BEDROCK_STATES)) {
+                for (Map.Entry<String, JsonElement> state : entry.getValue().getAsJsonObject().entrySet()) {
+                    put(states, state.getKey(), state.getValue());
+                }
+            } else {
+                put(attributes, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static void put(JsonObject object, String key, JsonElement value) {
+        if (value.isJsonNull()) {
+            object.remove(key);
+        } else {
+            object.add(key, value.deepCopy());
+        }
+    }
+
+    private static String toStateString(String block, List<String> properties, String[] values) {
+        if (properties.isEmpty()) {
+            return block;
+        }
+        StringBuilder builder = new StringBuilder(block).append('[');
+        for (int i = 0; i < properties.size(); i++) {
+            if (i != 0) {
+                builder.append(',');
+            }
+            builder.append(properties.get(i)).append('=').append(values[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    private static JsonObject sectionOf(JsonObject object, String section) {
+        return section == null ? object : getOrCreate(object, section);
+    }
+
+    private static JsonObject getOrCreate(JsonObject object, String key) {
+        JsonObject child = object.getAsJsonObject(key);
+        if (child == null) {
+            child = new JsonObject();
+            object.add(key, child);
+        }
+        return child;
+    }
+
+    private static JsonObject getObject(JsonObject object, String key) {
+        JsonElement element = object.get(key);
+        return element != null ? element.getAsJsonObject() : new JsonObject();
+    }
+}
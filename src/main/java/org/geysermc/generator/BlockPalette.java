@@ -0,0 +1,258 @@
+package org.geysermc.generator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.cloudburstmc.nbt.NBTInputStream;
+import org.cloudburstmc.nbt.NBTOutputStream;
+import org.cloudburstmc.nbt.NbtList;
+import org.cloudburstmc.nbt.NbtMap;
+import org.cloudburstmc.nbt.NbtMapBuilder;
+import org.cloudburstmc.nbt.NbtType;
+import org.cloudburstmc.nbt.NbtUtils;
+import org.geysermc.generator.jfr.ResourceLoadEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The Bedrock block palette, as loaded from blockpalette.nbt. The index of an entry in the
+ * palette is its Bedrock runtime ID, and each entry also has a network block hash.
+ */
+public class BlockPalette {
+
+    /**
+     * The hash Bedrock uses for minecraft:unknown, which we also use for states without a palette entry
+     */
+    public static final int UNKNOWN_HASH = -2;
+
+    private static final int FNV1_32_INIT = 0x811c9dc5;
+    private static final int FNV1_PRIME_32 = 0x01000193;
+
+    private final List<NbtMap> entries;
+    /**
+     * Every combination of name and states in the palette, keyed by {@link #fingerprint(String, NbtMap)}
+     */
+    private final Map<String, Integer> runtimeIds = new HashMap<>();
+    private final Map<String, List<Integer>> runtimeIdsByName = new HashMap<>();
+    private final int[] hashes;
+
+    public BlockPalette(List<NbtMap> entries) {
+        this.entries = entries;
+        this.hashes = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            NbtMap entry = entries.get(i);
+            String name = entry.getString("name");
+            this.runtimeIds.putIfAbsent(fingerprint(name, entry.getCompound("states")), i);
+            this.runtimeIdsByName.computeIfAbsent(name, $ -> new ArrayList<>()).add(i);
+            this.hashes[i] = createHash(name, entry.getCompound("states"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static BlockPalette load(File file) throws IOException {
+        ResourceLoadEvent event = new ResourceLoadEvent();
+        event.begin();
+        NbtMap ret;
+        try (NBTInputStream nbtInputStream = new NBTInputStream(new DataInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            ret = (NbtMap) nbtInputStream.readTag();
+        }
+        BlockPalette palette = new BlockPalette((NbtList<NbtMap>) ret.getList("blocks", NbtType.COMPOUND));
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.size = file.length();
+        }
+        event.commit();
+        return palette;
+    }
+
+    public List<NbtMap> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Finds the palette entry matching the given identifier and states.
+     *
+     * @param identifier the Bedrock block identifier
+     * @param states the Bedrock states, as written to bedrock_states in blocks.json. May be null if the block has no states.
+     * @return the Bedrock runtime ID of the block, or -1 if there is no matching palette entry
+     */
+    public int getRuntimeId(String identifier, JsonObject states) {
+        NbtMap nbtStates = toNbt(states);
+        if (nbtStates == null) {
+            return -1;
+        }
+        return runtimeIds.getOrDefault(fingerprint(identifier, nbtStates), -1);
+    }
+
+    /**
+     * @return true if the palette has at least one entry with this identifier
+     */
+    public boolean hasIdentifier(String identifier) {
+        return runtimeIdsByName.containsKey(identifier);
+    }
+
+    /**
+     * Finds the palette entries with the given identifier whose states are closest to the given ones.
+     *
+     * @param identifier the Bedrock block identifier
+     * @param states the Bedrock states to compare against
+     * @param limit the maximum amount of runtime IDs to return
+     * @return the runtime IDs of the closest entries, closest first
+     */
+    public List<Integer> findNearest(String identifier, NbtMap states, int limit) {
+        // Score every candidate once, rather than every time the sort compares it
+        List<int[]> scored = new ArrayList<>();
+        for (int runtimeId : runtimeIdsByName.getOrDefault(identifier, List.of())) {
+            scored.add(new int[]{runtimeId, getDifferences(runtimeId, states).size()});
+        }
+        scored.sort(Comparator.comparingInt(candidate -> candidate[1]));
+
+        List<Integer> candidates = new ArrayList<>(Math.min(limit, scored.size()));
+        for (int i = 0; i < Math.min(limit, scored.size()); i++) {
+            candidates.add(scored.get(i)[0]);
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the keys whose values differ between the palette entry and the given states, including keys only one of them has
+     */
+    public List<String> getDifferences(int runtimeId, NbtMap states) {
+        NbtMap paletteStates = entries.get(runtimeId).getCompound("states");
+        Set<String> keys = new TreeSet<>(paletteStates.keySet());
+        keys.addAll(states.keySet());
+
+        List<String> differences = new ArrayList<>();
+        for (String key : keys) {
+            if (!Objects.equals(paletteStates.get(key), states.get(key))) {
+                differences.add(key);
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * @param runtimeId the Bedrock runtime ID of a palette entry
+     * @return the network block hash of the palette entry
+     */
+    public int getHash(int runtimeId) {
+        return hashes[runtimeId];
+    }
+
+    /**
+     * Finds palette entries that do not have a unique network block hash.
+     *
+     * @return every hash shared by more than one palette entry, mapped to the runtime IDs of those entries
+     */
+    public Map<Integer, List<Integer>> findHashCollisions() {
+        Map<Integer, List<Integer>> runtimeIdsByHash = new HashMap<>();
+        for (int i = 0; i < hashes.length; i++) {
+            runtimeIdsByHash.computeIfAbsent(hashes[i], $ -> new ArrayList<>()).add(i);
+        }
+        runtimeIdsByHash.values().removeIf(runtimeIds -> runtimeIds.size() == 1);
+        return runtimeIdsByHash;
+    }
+
+    /**
+     * Creates the network block hash Bedrock uses to identify a block state. This is the 32-bit FNV-1a hash of the
+     * little-endian NBT of the block name and its states, with the states sorted by key.
+     *
+     * @param identifier the Bedrock block identifier
+     * @param states the Bedrock states of the block
+     * @return the network block hash
+     */
+    public static int createHash(String identifier, NbtMap states) {
+        if (identifier.equals("minecraft:unknown")) {
+            return UNKNOWN_HASH;
+        }
+
+        NbtMapBuilder sortedStates = NbtMap.builder();
+        sortedStates.putAll(new TreeMap<>(states));
+        NbtMap tag = createBlockTag(identifier, sortedStates.build());
+
+        byte[] bytes;
+        try (ByteArrayOutputStream stream = new ByteArrayOutputStream();
+             NBTOutputStream outputStream = NbtUtils.createWriterLE(stream)) {
+            outputStream.writeTag(tag);
+            outputStream.flush();
+            bytes = stream.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize block state " + tag, e);
+        }
+
+        int hash = FNV1_32_INIT;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= FNV1_PRIME_32;
+        }
+        return hash;
+    }
+
+    /**
+     * Creates a key that uniquely identifies a block name and state combination, regardless of the order of the states.
+     * Values are tagged with their NBT type so that, for example, a byte state never matches an int state.
+     */
+    public static String fingerprint(String identifier, NbtMap states) {
+        StringBuilder builder = new StringBuilder(identifier).append('[');
+        boolean first = true;
+        for (Map.Entry<String, Object> state : new TreeMap<>(states).entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            Object value = state.getValue();
+            char type = value instanceof Byte ? 'b' : value instanceof Integer ? 'i' : value instanceof String ? 's' : '?';
+            builder.append(state.getKey()).append('=').append(type).append(value);
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Converts Bedrock states from their JSON representation to the one used in the palette. Booleans are
+     * stored as bytes, and all other numbers as ints.
+     *
+     * @return the converted states, or null if a state could not be converted
+     */
+    public static NbtMap toNbt(JsonObject states) {
+        NbtMapBuilder builder = NbtMap.builder();
+        if (states == null) {
+            return builder.build();
+        }
+        for (Map.Entry<String, JsonElement> entry : states.entrySet()) {
+            if (!entry.getValue().isJsonPrimitive()) {
+                return null;
+            }
+            JsonPrimitive value = entry.getValue().getAsJsonPrimitive();
+            if (value.isBoolean()) {
+                builder.putByte(entry.getKey(), (byte) (value.getAsBoolean() ? 1 : 0));
+            } else if (value.isNumber()) {
+                builder.putInt(entry.getKey(), value.getAsInt());
+            } else {
+                builder.putString(entry.getKey(), value.getAsString());
+            }
+        }
+        return builder.build();
+    }
+
+    private static NbtMap createBlockTag(String identifier, NbtMap states) {
+        return NbtMap.builder()
+                .putString("name", identifier)
+                .putCompound("states", states)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package org.geysermc.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A packed form of collision.json, with the collision shape of every block state.
+ *
+ * After the magic and version comes the shape count, the total box count, and every box as six floats
+ * (center x/y/z, then size x/y/z, like collision.json). Then, for every shape, the index of its first box
+ * as an int and its box count as a short. Then the state count, every state's shape index as a short, and
+ * two bitsets of longs marking the states with no collision at all and the states that are a full cube.
+ */
+public final class CollisionTable {
+
+    private CollisionTable() {
+    }
+
+    /**
+     * @param file the file to write to
+     * @param shapes the collision shapes, as written to collision.json
+     * @param stateShapes the index of the shape of each Java block state
+     */
+    public static void write(File file, List<List<List<Double>>> shapes, int[] stateShapes) throws IOException {
+        int boxCount = 0;
+        boolean[] emptyShapes = new boolean[shapes.size()];
+        boolean[] fullCubeShapes = new boolean[shapes.size()];
+        for (int i = 0; i < shapes.size(); i++) {
+            List<List<Double>> shape = shapes.get(i);
+            boxCount += shape.size();
+            emptyShapes[i] = shape.isEmpty();
+            fullCubeShapes[i] = shape.size() == 1 && isFullCube(shape.get(0));
+        }
+
+        BitSet emptyStates = new BitSet(stateShapes.length);
+        BitSet fullCubeStates = new BitSet(stateShapes.length);
+        for (int stateId = 0; stateId < stateShapes.length; stateId++) {
+            emptyStates.set(stateId, emptyShapes[stateShapes[stateId]]);
+            fullCubeStates.set(stateId, fullCubeShapes[stateShapes[stateId]]);
+        }
+
+        int totalBoxes = boxCount;
+        BinaryTableWriter.write(file, "COLL", out -> {
+            out.writeInt(shapes.size());
+            out.writeInt(totalBoxes);
+            for (List<List<Double>> shape : shapes) {
+                for (List<Double> box : shape) {
+                    for (Double coordinate : box) {
+                        out.writeFloat(coordinate.floatValue());
+                    }
+                }
+            }
+
+            int firstBox = 0;
+            for (List<List<Double>> shape : shapes) {
+                out.writeInt(firstBox);
+                out.writeShort(shape.size());
+                firstBox += shape.size();
+            }
+
+            out.writeInt(stateShapes.length);
+            for (int shape : stateShapes) {
+                out.writeShort(shape);
+            }
+
+            int words = (stateShapes.length + 63) / 64;
+            BinaryTableWriter.writeBitSet(out, emptyStates, words);
+            BinaryTableWriter.writeBitSet(out, fullCubeStates, words);
+        });
+    }
+
+    private static boolean isFullCube(List<Double> box) {
+        return box.get(0) == 0.5 && box.get(1) == 0.5 && box.get(2) == 0.5
+                && box.get(3) == 1.0 && box.get(4) == 1.0 && box.get(5) == 1.0;
+    }
+}
@@ -6,6 +6,9 @@ import net.minecraft.world.level.block.DecoratedPotBlock;
 import net.minecraft.world.level.block.FlowerBlock;
 import net.minecraft.world.level.block.ShulkerBoxBlock;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -42,6 +45,18 @@ public class GenerateItemsClass {
         List<Class<? extends Item>> mirroredClasses = List.of(DyeableArmorItem.class, TieredItem.class, DyeItem.class, SpawnEggItem.class,
                 PotionItem.class, ArmorItem.class, BannerItem.class, DyeableHorseArmorItem.class, BoatItem.class);
 
+        List<String> names = new ArrayList<>();
+        StringBuilder source = new StringBuilder(GeneratedSource.HEADER)
+                .append("package org.geysermc.geyser.item;\n\n")
+                .append("import org.geysermc.geyser.item.type.*;\n")
+                .append("import org.geysermc.geyser.registry.Registries;\n\n")
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.Collections;\n")
+                .append("import java.util.List;\n\n")
+                .append("import static org.geysermc.geyser.item.type.Item.builder;\n\n")
+                .append("public final class Items {\n")
+                .append("    private static final List<Item> REGISTERED = new ArrayList<>(").append(BuiltInRegistries.ITEM.size()).append(");\n\n");
+
         for (Item item : BuiltInRegistries.ITEM) {
             StringBuilder builder = new StringBuilder("public static final ");
             String clazz = null;
@@ -110,7 +125,49 @@ public class GenerateItemsClass {
             }
 
             builder.append("));"); // First bracket is for the item constructor; second is for the register method
-            System.out.println(builder.toString());
+            source.append("    ").append(builder).append('\n');
+            names.add(BuiltInRegistries.ITEM.getKey(item).toString());
+        }
+
+        // Filled by register, so that the item declarations are the only per-item code in the static initializer
+        source.append("\n    private static final Item[] BY_ID = REGISTERED.toArray(new Item[0]);\n\n")
+                .append("    private Items() {\n")
+                .append("    }\n\n")
+                .append("    public static <T extends Item> T register(T item) {\n")
+                .append("        return register(item, Registries.JAVA_ITEMS.get().size());\n")
+                .append("    }\n\n")
+                // Same as Geyser's own register, which the rest of Geyser relies on for the Java ID and the item registry
+                .append("    public static <T extends Item> T register(T item, int id) {\n")
+                .append("        item.setJavaId(id);\n")
+                .append("        // This makes sure that the array is large enough to put the java item at the correct location\n")
+                .append("        if (Registries.JAVA_ITEMS.get().size() <= id) {\n")
+                .append("            Registries.JAVA_ITEMS.get().addAll(Collections.nCopies(id - Registries.JAVA_ITEMS.get().size() + 1, AIR));\n")
+                .append("        }\n")
+                .append("        Registries.JAVA_ITEMS.get().set(id, item);\n")
+                .append("        if (REGISTERED.size() <= id) {\n")
+                .append("            REGISTERED.addAll(Collections.nCopies(id - REGISTERED.size() + 1, AIR));\n")
+                .append("        }\n")
+                .append("        REGISTERED.set(id, item);\n")
+                .append("        return item;\n")
+                .append("    }\n\n")
+                .append("    /**\n")
+                .append("     * @return the item with this Java item ID, or null if there is none\n")
+                .append("     */\n")
+                .append("    public static Item byId(int id) {\n")
+                .append("        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;\n")
+                .append("    }\n\n");
+        GeneratedSource.appendByName(source, names, "Item", "BY_ID", "javaIdentifier");
+        source.append("}\n");
+
+        try {
+            if (GeneratedSource.writeIfChanged(new File("generated/Items.java"), source.toString())) {
+                System.out.println("Finished items class writing process!");
+            } else {
+                System.out.println("Items.java is already up to date.");
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to write Items.java!");
+            e.printStackTrace();
         }
     }
 }
@@ -4,6 +4,10 @@ import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.sounds.SoundEvent;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 public class GenerateMCProtocolLibSoundEnum {
@@ -11,6 +15,10 @@ public class GenerateMCProtocolLibSoundEnum {
     public static void main(String[] args) {
         Util.initialize();
 
+        List<String> names = new ArrayList<>();
+        StringBuilder builder = new StringBuilder(GeneratedSource.HEADER)
+                .append("package com.github.steveice10.mc.protocol.data.game.level.sound;\n\n")
+                .append("public enum BuiltinSound implements Sound {\n");
         for (int i = 0; i < BuiltInRegistries.SOUND_EVENT.size(); i++) {
             SoundEvent soundEvent = BuiltInRegistries.SOUND_EVENT.byId(i);
             ResourceLocation resourceLocation = BuiltInRegistries.SOUND_EVENT.getKey(soundEvent);
@@ -18,7 +26,38 @@ public class GenerateMCProtocolLibSoundEnum {
             String value = resourceLocation.getPath().replace("minecraft:", "");
             String enumName = value.replace(".", "_")
                     .toUpperCase(Locale.ROOT);
-            System.out.println(enumName + "(\"" + value + "\"),");
+            builder.append("    ").append(enumName).append("(\"").append(value).append("\")")
+                    .append(i != BuiltInRegistries.SOUND_EVENT.size() - 1 ? ",\n" : ";\n\n");
+            names.add(value);
+        }
+
+        builder.append("    private static final BuiltinSound[] VALUES = values();\n\n")
+                .append("    private final String name;\n\n")
+                .append("    BuiltinSound(String name) {\n")
+                .append("        this.name = name;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public String getName() {\n")
+                .append("        return this.name;\n")
+                .append("    }\n\n")
+                .append("    /**\n")
+                .append("     * @return the sound with this network ID, or null if there is none\n")
+                .append("     */\n")
+                .append("    public static BuiltinSound byId(int id) {\n")
+                .append("        return id >= 0 && id < VALUES.length ? VALUES[id] : null;\n")
+                .append("    }\n\n");
+        GeneratedSource.appendByName(builder, names, "BuiltinSound", "VALUES", "getName");
+        builder.append("}\n");
+
+        try {
+            if (GeneratedSource.writeIfChanged(new File("generated/BuiltinSound.java"), builder.toString())) {
+                System.out.println("Finished sound enum writing process!");
+            } else {
+                System.out.println("BuiltinSound.java is already up to date.");
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to write BuiltinSound.java!");
+            e.printStackTrace();
         }
     }
 }
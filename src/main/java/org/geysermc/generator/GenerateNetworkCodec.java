@@ -1,5 +1,7 @@
 package org.geysermc.generator;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import io.netty.handler.codec.EncoderException;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.core.RegistrySynchronization;
@@ -15,12 +17,27 @@ import net.minecraft.server.packs.PackType;
 import net.minecraft.server.packs.repository.ServerPacksSource;
 import net.minecraft.server.packs.resources.CloseableResourceManager;
 import net.minecraft.server.packs.resources.MultiPackResourceManager;
+import org.geysermc.generator.output.MappingsWriter;
+import org.geysermc.generator.output.PrettyJsonEncoder;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 
 public class GenerateNetworkCodec {
+    /**
+     * Pass --split to also write every registry on its own, see {@link #writeSplit(CompoundTag)}
+     */
     public static void main(String[] args) {
         Util.initialize();
 
@@ -39,5 +56,75 @@ public class GenerateNetworkCodec {
             System.out.println("Failed to write networkCodec.nbt!");
             e.printStackTrace();
         }
+
+        if (List.of(args).contains("--split")) {
+            try {
+                writeSplit((CompoundTag) tag);
+                System.out.println("Finished writing the split network codec!");
+            } catch (IOException e) {
+                System.out.println("Failed to write the split network codec!");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Writes each registry of the codec to networkCodec/ as an uncompressed, named NBT entry: the tag type,
+     * the registry name and the tag payload. Concatenating the entries in manifest order between a compound
+     * tag type (0x0a) and an end tag (0x00) gives the nameless network NBT of the whole codec, so a proxy can
+     * send the registry data by copying these bytes into the packet.
+     *
+     * The manifest lists every registry with its file, size and SHA-256 checksum.
+     */
+    private static void writeSplit(CompoundTag codec) throws IOException {
+        File directory = new File("./networkCodec");
+        directory.mkdirs();
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        JsonArray registries = new JsonArray();
+        List<Map.Entry<String, Integer>> sizes = new ArrayList<>();
+        int totalSize = 2; // The surrounding compound type and end tag
+        for (String registry : codec.getAllKeys()) {
+            Tag registryTag = codec.get(registry);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(registryTag.getId());
+                out.writeUTF(registry);
+                registryTag.write(out);
+            }
+            byte[] blob = bytes.toByteArray();
+
+            String fileName = registry.replace(':', '_').replace('/', '_') + ".nbt";
+            try (OutputStream out = new FileOutputStream(new File(directory, fileName))) {
+                out.write(blob);
+            }
+
+            JsonObject entry = new JsonObject();
+            entry.addProperty("registry", registry);
+            entry.addProperty("file", fileName);
+            entry.addProperty("size", blob.length);
+            entry.addProperty("sha256", HexFormat.of().formatHex(digest.digest(blob)));
+            registries.add(entry);
+            sizes.add(Map.entry(registry, blob.length));
+            totalSize += blob.length;
+        }
+
+        JsonObject manifest = new JsonObject();
+        manifest.addProperty("total_size", totalSize);
+        manifest.add("registries", registries);
+        MappingsWriter.create(List.of(PrettyJsonEncoder.NAME)).write(new File(directory, "manifest.json"), manifest);
+
+        // Show which registries make up most of the login payload
+        sizes.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        for (Map.Entry<String, Integer> size : sizes) {
+            System.out.printf("%-40s %8d bytes (%.1f%%)%n", size.getKey(), size.getValue(), 100.0 * size.getValue() / totalSize);
+        }
+        System.out.println("Total: " + totalSize + " bytes");
     }
 }
\ No newline at end of file
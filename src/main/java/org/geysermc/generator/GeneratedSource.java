@@ -0,0 +1,106 @@
+package org.geysermc.generator;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Helpers for the generators that write Java source files for other projects.
+ */
+public final class GeneratedSource {
+
+    public static final String HEADER = "// This file is generated by mappings-generator. Do not edit it by hand.\n";
+
+    private GeneratedSource() {
+    }
+
+    /**
+     * Writes the source file, unless it already has exactly this content. Leaving unchanged files alone
+     * keeps their timestamps, so incremental builds of the consuming project don't recompile them.
+     *
+     * @return true if the file was written
+     */
+    public static boolean writeIfChanged(File file, String source) throws IOException {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        if (file.exists() && Arrays.equals(Files.readAllBytes(file.toPath()), bytes)) {
+            return false;
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(source);
+        }
+        return true;
+    }
+
+    /**
+     * Appends a static byName method that resolves names through a perfect hash, and the nested class holding
+     * the hash. The hash is in its own class so that its tables are only initialized on the first lookup, and
+     * so that they don't count towards the size limit of the outer class's static initializer.
+     *
+     * @param builder the source being generated, positioned inside the outer class body
+     * @param names the names of every value, in ID order
+     * @param type the type of the values
+     * @param values the expression for the array of every value in ID order
+     * @param nameAccessor the method that returns the name of a value, as hashed
+     */
+    public static void appendByName(StringBuilder builder, List<String> names, String type, String values, String nameAccessor) {
+        PerfectHash hash = PerfectHash.build(names);
+        hash.verify(names);
+
+        builder.append("    /**\n")
+                .append("     * @return the value with this name, or null if there is none\n")
+                .append("     */\n")
+                .append("    public static ").append(type).append(" byName(String name) {\n")
+                .append("        ").append(type).append(" value = ").append(values).append("[NameLookup.SLOTS[NameLookup.slot(name)]];\n")
+                .append("        return value.").append(nameAccessor).append("().equals(name) ? value : null;\n")
+                .append("    }\n\n");
+
+        builder.append("    /**\n")
+                .append("     * A minimal perfect hash of every name. See PerfectHash in mappings-generator.\n")
+                .append("     */\n")
+                .append("    private static final class NameLookup {\n")
+                .append("        private static final long SEED = ").append(hash.getSeed()).append("L;\n")
+                .append("        private static final int[] DISPLACEMENTS = {");
+        int[] displacements = hash.getDisplacements();
+        for (int i = 0; i < displacements.length; i++) {
+            builder.append(i % 16 == 0 ? "\n            " : " ").append(displacements[i]).append(',');
+        }
+        builder.append("\n        };\n")
+                .append("        private static final int[] SLOTS = new int[").append(values).append(".length];\n\n")
+                .append("        static {\n")
+                .append("            for (int i = 0; i < ").append(values).append(".length; i++) {\n")
+                .append("                SLOTS[slot(").append(values).append("[i].").append(nameAccessor).append("())] = i;\n")
+                .append("            }\n")
+                .append("        }\n\n")
+                .append("        private static int slot(String name) {\n")
+                .append("            long hash = 0x").append(Long.toHexString(PerfectHash.FNV1_64_INIT)).append("L ^ SEED;\n")
+                .append("            for (int i = 0; i < name.length(); i++) {\n")
+                .append("                hash ^= name.charAt(i);\n")
+                .append("                hash *= 0x").append(Long.toHexString(PerfectHash.FNV1_PRIME_64)).append("L;\n")
+                .append("            }\n")
+                .append("            hash = mix(hash);\n")
+                .append("            int displacement = DISPLACEMENTS[(int) ((hash >>> 1) % DISPLACEMENTS.length)];\n")
+                .append("            if (displacement < 0) {\n")
+                .append("                return -displacement - 1;\n")
+                .append("            }\n")
+                .append("            return (int) ((mix(hash + (displacement + 1) * 0x").append(Long.toHexString(PerfectHash.GOLDEN_GAMMA)).append("L) >>> 1) % SLOTS.length);\n")
+                .append("        }\n\n")
+                .append("        private static long mix(long value) {\n")
+                .append("            value ^= value >>> 33;\n")
+                .append("            value *= 0xff51afd7ed558ccdL;\n")
+                .append("            value ^= value >>> 33;\n")
+                .append("            value *= 0xc4ceb9fe1a85ec53L;\n")
+                .append("            value ^= value >>> 33;\n")
+                .append("            return value;\n")
+                .append("        }\n")
+                .append("    }\n");
+    }
+}
@@ -0,0 +1,162 @@
+package org.geysermc.generator;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import org.geysermc.generator.output.MappingsWriter;
+import org.geysermc.generator.state.StateMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps Minecraft bootstrapped and generates on request, so iterating on a state mapper or an override doesn't
+ * pay for the bootstrap and JIT warm-up every time.
+ *
+ * Commands are read from standard input, one per line:
+ * <ul>
+ *     <li>{@code regenerate <phase>} or {@code regenerate all} - generate one or every {@link GeneratorPhase}</li>
+ *     <li>{@code regenerate <phase> <regex>} - update only the matching entries of a phase that can be filtered</li>
+ *     <li>{@code remap <block state>} - print the blocks.json entry of one block state</li>
+ *     <li>{@code quit}</li>
+ * </ul>
+ *
+ * Every command starts from a fresh generator: the files in mappings/ and palettes/ are read again, and the state
+ * mappers are loaded through a new class loader, so recompiled mappers take effect without a restart.
+ */
+public class GeneratorDaemon {
+
+    private static final String MAPPER_PACKAGE = "org.geysermc.generator.state.type";
+
+    private final List<String> encoders;
+    private final boolean diff;
+
+    public GeneratorDaemon(List<String> encoders, boolean diff) {
+        this.encoders = encoders;
+        this.diff = diff;
+    }
+
+    public void run() {
+        System.out.println("Generator daemon ready. Commands: regenerate <" + phaseNames() + "|all> [regex], remap <block state>, quit");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.equals("quit")) {
+                    return;
+                }
+
+                long start = System.nanoTime();
+                try {
+                    handle(line);
+                } catch (Exception e) {
+                    System.out.println("ERROR: " + line + " failed: " + e);
+                    e.printStackTrace();
+                }
+                System.out.println("Finished " + line + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read daemon commands", e);
+        }
+    }
+
+    private void handle(String line) throws IOException {
+        String[] command = line.split(" ", 2);
+        String argument = command.length > 1 ? command[1].trim() : "";
+        switch (command[0]) {
+            case "regenerate" -> {
+                MappingsWriter output = MappingsWriter.create(encoders, diff);
+                MappingsGenerator generator = createGenerator(output);
+                if (argument.equals("all")) {
+                    for (GeneratorPhase phase : GeneratorPhase.values()) {
+                        phase.run(generator);
+                    }
+                    return;
+                }
+                String[] arguments = argument.split(" ", 2);
+                GeneratorPhase phase = GeneratorPhase.byName(arguments[0]);
+                if (phase == null) {
+                    System.out.println("Unknown phase " + arguments[0] + "! Phases: " + phaseNames() + ", all");
+                    return;
+                }
+                if (arguments.length == 1) {
+                    phase.run(generator);
+                } else if (!phase.isFilterable()) {
+                    System.out.println(phase.getName() + " can't be filtered");
+                } else {
+                    try {
+                        output.checkUpdatable();
+                    } catch (IllegalStateException e) {
+                        System.out.println(e.getMessage());
+                        return;
+                    }
+                    phase.run(generator, Pattern.compile(arguments[1].trim()));
+                }
+            }
+            case "remap" -> {
+                JsonObject remapped = createGenerator(MappingsWriter.create(encoders, diff)).remapBlockState(argument);
+                if (remapped == null) {
+                    System.out.println("Unknown block state " + argument);
+                } else {
+                    System.out.println(new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(remapped));
+                }
+            }
+            default -> System.out.println("Unknown command " + command[0] + "! Commands: regenerate, remap, quit");
+        }
+    }
+
+    private MappingsGenerator createGenerator(MappingsWriter output) {
+        MappingsGenerator.resetCaches();
+        URL classes = StateMapper.class.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader mapperClassLoader = new MapperClassLoader(new URL[]{classes}, GeneratorDaemon.class.getClassLoader());
+        return new MappingsGenerator(output, mapperClassLoader);
+    }
+
+    private static String phaseNames() {
+        return Arrays.stream(GeneratorPhase.values()).map(GeneratorPhase::getName).collect(Collectors.joining("|"));
+    }
+
+    /**
+     * Loads the state mappers itself instead of asking its parent first, so every instance sees the mapper
+     * classes as they currently are on disk. Everything else, including {@link StateMapper} itself, still
+     * comes from the parent so the mappers can be used by the generator.
+     */
+    private static final class MapperClassLoader extends URLClassLoader {
+
+        private MapperClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(MAPPER_PACKAGE + ".")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    try {
+                        clazz = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        clazz = super.loadClass(name, false);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(clazz);
+                }
+                return clazz;
+            }
+        }
+    }
+}
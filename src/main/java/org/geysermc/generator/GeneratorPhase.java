@@ -0,0 +1,106 @@
+package org.geysermc.generator;
+
+import org.geysermc.generator.jfr.PhaseEvent;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Every part of the mappings that can be generated on its own, in the order a full run generates them.
+ */
+public enum GeneratorPhase {
+    ITEMS(MappingsGenerator::generateItems, MappingsGenerator::generateItems, "mappings/items.json", "palettes/runtime_item_states.json", "palettes/*/runtime_item_states.json"),
+    BLOCKS(MappingsGenerator::generateBlocks, MappingsGenerator::generateBlocks, "mappings/blocks.json", "palettes/blockpalette.nbt", "palettes/*/blockpalette.nbt"),
+    SOUNDS(MappingsGenerator::generateSounds, MappingsGenerator::generateSounds, "mappings/sounds.json", "bedrockresourcepack.zip"),
+    BIOMES(MappingsGenerator::generateBiomes, "mappings/biomes.json", "palettes/biome_id_map.json"),
+    MAP_COLORS(MappingsGenerator::generateMapColors),
+    ENCHANTMENTS(MappingsGenerator::generateEnchantments),
+    PARTICLES(MappingsGenerator::generateParticles, "mappings/particles.json", "bedrockresourcepack.zip"),
+    INTERACTION_DATA(MappingsGenerator::generateInteractionData),
+    BLOCK_BREAK_TIMES(MappingsGenerator::generateBlockBreakTimes);
+
+    private static final GeneratorPhase[] VALUES = values();
+
+    private final Consumer<MappingsGenerator> action;
+    private final BiConsumer<MappingsGenerator, Pattern> filteredAction;
+    private final List<PathMatcher> inputs;
+
+    GeneratorPhase(Consumer<MappingsGenerator> action, String... inputs) {
+        this(action, null, inputs);
+    }
+
+    /**
+     * @param filteredAction generates only the entries whose key matches a pattern, or null if the phase can't be filtered
+     * @param inputs globs of the files the phase reads, relative to the working directory
+     */
+    GeneratorPhase(Consumer<MappingsGenerator> action, BiConsumer<MappingsGenerator, Pattern> filteredAction, String... inputs) {
+        this.action = action;
+        this.filteredAction = filteredAction;
+        this.inputs = Arrays.stream(inputs).map(input -> FileSystems.getDefault().getPathMatcher("glob:" + input)).toList();
+    }
+
+    public void run(MappingsGenerator generator) {
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        action.accept(generator);
+        event.phase = getName();
+        event.commit();
+    }
+
+    /**
+     * Generates only the entries whose key matches the filter, updating them in the existing output.
+     *
+     * @throws UnsupportedOperationException if the phase can't be filtered
+     */
+    public void run(MappingsGenerator generator, Pattern filter) {
+        if (filteredAction == null) {
+            throw new UnsupportedOperationException(getName() + " can't be filtered");
+        }
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        filteredAction.accept(generator, filter);
+        event.phase = getName();
+        event.filter = filter.pattern();
+        event.commit();
+    }
+
+    public boolean isFilterable() {
+        return filteredAction != null;
+    }
+
+    /**
+     * @param path a path relative to the working directory
+     * @return whether the phase reads this file, so has to run again when it changes
+     */
+    public boolean readsFile(Path path) {
+        for (PathMatcher input : inputs) {
+            if (input.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the phase with this name, such as map_colors, or null if there is none
+     */
+    public static GeneratorPhase byName(String name) {
+        for (GeneratorPhase phase : VALUES) {
+            if (phase.getName().equals(name)) {
+                return phase;
+            }
+        }
+        return null;
+    }
+}
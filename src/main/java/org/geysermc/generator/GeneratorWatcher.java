@@ -0,0 +1,189 @@
+package org.geysermc.generator;
+
+import org.geysermc.generator.output.MappingsWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Watches mappings/, palettes/ and bedrockresourcepack.zip, and runs every {@link GeneratorPhase} that reads a file
+ * which changed, for example after fixing MANUALMAP entries in blocks.json by hand or dropping in a new block palette.
+ *
+ * Editors and copies tend to write a file several times in a row, so changes are collected until nothing has changed
+ * for {@link #DEBOUNCE_MILLIS}. A file only counts as changed if its size or modification time differ from after the
+ * last run, which also keeps the files that a phase writes itself from running it again.
+ */
+public class GeneratorWatcher {
+
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    private static final Path MAPPINGS = Path.of("mappings");
+    private static final Path PALETTES = Path.of("palettes");
+    private static final Path WORKING_DIRECTORY = Path.of(".");
+
+    private final List<String> encoders;
+    private final boolean diff;
+    private final Set<Path> registered = new HashSet<>();
+
+    public GeneratorWatcher(List<String> encoders, boolean diff) {
+        this.encoders = encoders;
+        this.diff = diff;
+    }
+
+    public void run() {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            registerDirectories(watchService);
+            Map<Path, String> snapshot = snapshot();
+            System.out.println("Watching mappings/, palettes/ and bedrockresourcepack.zip for changes");
+
+            while (true) {
+                // Wait for a change, then for the burst it belongs to to end
+                WatchKey key = watchService.take();
+                do {
+                    key.pollEvents();
+                    key.reset();
+                } while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+
+                registerDirectories(watchService);
+                Map<Path, String> current = snapshot();
+                Set<Path> changed = new TreeSet<>();
+                for (Path path : union(snapshot.keySet(), current.keySet())) {
+                    if (!Objects.equals(snapshot.get(path), current.get(path))) {
+                        changed.add(path);
+                    }
+                }
+                snapshot = current;
+
+                Set<GeneratorPhase> phases = EnumSet.noneOf(GeneratorPhase.class);
+                for (GeneratorPhase phase : GeneratorPhase.values()) {
+                    for (Path path : changed) {
+                        if (phase.readsFile(path)) {
+                            phases.add(phase);
+                        }
+                    }
+                }
+                if (phases.isEmpty()) {
+                    continue;
+                }
+
+                System.out.println("Changed: " + changed.stream().map(Path::toString).collect(Collectors.joining(", "))
+                        + ", regenerating " + phases.stream().map(GeneratorPhase::getName).collect(Collectors.joining(", ")));
+                long start = System.nanoTime();
+                MappingsGenerator.resetCaches();
+                MappingsGenerator generator = new MappingsGenerator(MappingsWriter.create(encoders, diff));
+                for (GeneratorPhase phase : phases) {
+                    try {
+                        phase.run(generator);
+                    } catch (Exception e) {
+                        System.out.println("ERROR: " + phase.getName() + " failed: " + e);
+                        e.printStackTrace();
+                    }
+                }
+                // Whatever the phases wrote is now the state to compare against
+                snapshot = snapshot();
+                System.out.println("Finished regenerating in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to watch for changes", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Registers the watched directories, including any version directory in palettes/ that was added since the last call.
+     */
+    private void registerDirectories(WatchService watchService) throws IOException {
+        register(watchService, MAPPINGS);
+        register(watchService, PALETTES);
+        register(watchService, WORKING_DIRECTORY);
+        for (Path directory : list(PALETTES)) {
+            if (Files.isDirectory(directory)) {
+                register(watchService, directory);
+            }
+        }
+    }
+
+    private void register(WatchService watchService, Path directory) throws IOException {
+        if (Files.isDirectory(directory) && registered.add(directory)) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+    }
+
+    /**
+     * @return the size and modification time of every file that a phase reads
+     */
+    private static Map<Path, String> snapshot() throws IOException {
+        List<Path> candidates = new ArrayList<>();
+        candidates.addAll(list(MAPPINGS));
+        candidates.addAll(list(WORKING_DIRECTORY));
+        for (Path path : list(PALETTES)) {
+            candidates.add(path);
+            if (Files.isDirectory(path)) {
+                candidates.addAll(list(path));
+            }
+        }
+
+        Map<Path, String> snapshot = new HashMap<>();
+        for (Path path : candidates) {
+            if (!Files.isRegularFile(path) || !isInput(path)) {
+                continue;
+            }
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                snapshot.put(path, attributes.size() + "@" + attributes.lastModifiedTime().toMillis());
+            } catch (IOException e) {
+                // Deleted since it was listed, which the next change will pick up
+            }
+        }
+        return snapshot;
+    }
+
+    private static boolean isInput(Path path) {
+        for (GeneratorPhase phase : GeneratorPhase.values()) {
+            if (phase.readsFile(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                // Paths in the working directory come out as ./name, which the phase inputs don't match
+                paths.add(path.normalize());
+            }
+        }
+        return paths;
+    }
+
+    private static Set<Path> union(Set<Path> first, Set<Path> second) {
+        Set<Path> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+}
@@ -0,0 +1,16 @@
+package org.geysermc.generator;
+
+import com.google.gson.JsonObject;
+
+/**
+ * The part of a block state's mapping that is the same for every Bedrock block palette.
+ *
+ * @param identifier the Java block state string
+ * @param attributes the entry in blocks.json, without the Bedrock states
+ * @param stateIdentifier the Bedrock identifier whose state keys the block state must have
+ * @param blockEntry the block state's entry in the existing blocks.json, or null if it had none
+ * @param mappedStates the Bedrock states set by the state mappers and special cases, which take priority
+ *                     over the states of the block entry
+ */
+public record JavaBlockRemap(String identifier, JsonObject attributes, String stateIdentifier, BlockEntry blockEntry, JsonObject mappedStates) {
+}
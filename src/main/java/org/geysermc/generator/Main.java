@@ -1,18 +1,105 @@
 package org.geysermc.generator;
 
+import org.geysermc.generator.output.MappingsWriter;
+import org.geysermc.generator.output.PrettyJsonEncoder;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
 public class Main {
 
-    public static void main(String[] args) {
-        Util.initialize();
-
-        MappingsGenerator generator = new MappingsGenerator();
-        generator.generateItems();
-        generator.generateBlocks();
-        generator.generateSounds();
-        generator.generateBiomes();
-        generator.generateMapColors();
-        generator.generateEnchantments();
-        generator.generateParticles();
-        generator.generateInteractionData();
+    public static void main(String[] args) throws IOException, ParseException {
+        List<String> encoders = List.of(PrettyJsonEncoder.NAME);
+        boolean diff = false;
+        boolean daemon = false;
+        boolean watch = false;
+        Map<GeneratorPhase, Pattern> filters = new EnumMap<>(GeneratorPhase.class);
+        Path recordingFile = null;
+        for (String arg : args) {
+            if (arg.startsWith("--encoders=")) {
+                // For example --encoders=pretty_json,binary to keep the JSON for review and also write the binary form
+                encoders = Arrays.asList(arg.substring("--encoders=".length()).split(","));
+            } else if (arg.equals("--diff")) {
+                diff = true;
+            } else if (arg.equals("--daemon")) {
+                // Stay running and generate on request, see GeneratorDaemon
+                daemon = true;
+            } else if (arg.equals("--watch")) {
+                // Stay running and regenerate whatever depends on a changed input, see GeneratorWatcher
+                watch = true;
+            } else if (arg.equals("--jfr") || arg.startsWith("--jfr=")) {
+                // Record a flight recording of the run, including the generator's own events in org.geysermc.generator.jfr
+                recordingFile = Path.of(arg.equals("--jfr") ? "generator.jfr" : arg.substring("--jfr=".length()));
+            } else if (arg.startsWith("--filter=")) {
+                // For example --filter=blocks:.*_hanging_sign to only update those entries, see GeneratorPhase#run(MappingsGenerator, Pattern)
+                String[] filter = arg.substring("--filter=".length()).split(":", 2);
+                GeneratorPhase phase = GeneratorPhase.byName(filter[0]);
+                if (phase == null || !phase.isFilterable() || filter.length < 2) {
+                    System.out.println("Invalid filter " + arg + "! Use --filter=<phase>:<regex> with one of the phases items, blocks or sounds");
+                    return;
+                }
+                filters.put(phase, Pattern.compile(filter[1]));
+            } else {
+                System.out.println("Unknown argument " + arg + "! Arguments: --encoders=<names>, --diff, --daemon, --watch, --jfr[=<file>], --filter=<phase>:<regex>");
+                return;
+            }
+        }
+
+        // Check the output options before bootstrapping, which takes a while
+        MappingsWriter output;
+        try {
+            output = MappingsWriter.create(encoders, diff);
+            if (!filters.isEmpty()) {
+                output.checkUpdatable();
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        Recording recording = null;
+        if (recordingFile != null) {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("Mappings Generator");
+            recording.start();
+        }
+
+        try {
+            Util.initialize();
+
+            if (daemon) {
+                new GeneratorDaemon(encoders, diff).run();
+                return;
+            }
+            if (watch) {
+                new GeneratorWatcher(encoders, diff).run();
+                return;
+            }
+
+            MappingsGenerator generator = new MappingsGenerator(output);
+            if (!filters.isEmpty()) {
+                // Only update the filtered entries, and leave everything else alone
+                filters.forEach((phase, filter) -> phase.run(generator, filter));
+                return;
+            }
+            for (GeneratorPhase phase : GeneratorPhase.values()) {
+                phase.run(generator);
+            }
+        } finally {
+            if (recording != null) {
+                recording.dump(recordingFile);
+                recording.close();
+                System.out.println("Wrote the flight recording to " + recordingFile + ", view it with jfr print or JDK Mission Control");
+            }
+        }
     }
 }
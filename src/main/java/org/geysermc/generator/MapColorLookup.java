@@ -0,0 +1,121 @@
+package org.geysermc.generator;
+
+import net.minecraft.world.level.material.MapColor;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the Java map color closest to an RGB color, either by searching the whole palette or through a
+ * precomputed table that splits the RGB cube into 32x32x32 cells.
+ */
+public final class MapColorLookup {
+
+    public static final int BITS_PER_CHANNEL = 5;
+    public static final int CELLS_PER_CHANNEL = 1 << BITS_PER_CHANNEL;
+
+    private final int[] palette;
+    private final byte[] table;
+
+    /**
+     * @param palette the map colors as packed 0xRRGGBB values, with -1 for colors that can't be matched (transparent)
+     */
+    public MapColorLookup(int[] palette) {
+        if (palette.length > 256) {
+            throw new IllegalArgumentException("Map color indexes must fit in a byte, but there are " + palette.length);
+        }
+        this.palette = palette;
+        this.table = new byte[CELLS_PER_CHANNEL * CELLS_PER_CHANNEL * CELLS_PER_CHANNEL];
+        int shift = 8 - BITS_PER_CHANNEL;
+        int center = 1 << (shift - 1);
+        for (int r = 0; r < CELLS_PER_CHANNEL; r++) {
+            for (int g = 0; g < CELLS_PER_CHANNEL; g++) {
+                for (int b = 0; b < CELLS_PER_CHANNEL; b++) {
+                    int rgb = ((r << shift) + center) << 16 | ((g << shift) + center) << 8 | ((b << shift) + center);
+                    table[getCell(rgb)] = (byte) nearest(rgb);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the palette of all Java map colors, in the same order as map_colors.txt.
+     */
+    public static int[] createPalette() {
+        List<Integer> colors = new ArrayList<>();
+        for (MapColor color : MapColor.MATERIAL_COLORS) {
+            if (color == null) {
+                continue;
+            }
+
+            for (MapColor.Brightness brightness : MapColor.Brightness.values()) {
+                Color rgb = new Color(color.calculateRGBColor(brightness), true);
+                int packed = rgb.getRed() << 16 | rgb.getGreen() << 8 | rgb.getBlue();
+                // The empty colors, which are remapped to (-1, -1, -1) in map_colors.txt
+                colors.add(packed == 0 ? -1 : packed);
+            }
+        }
+        return colors.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Searches every color of the palette for the closest one.
+     *
+     * @param rgb the color as 0xRRGGBB
+     * @return the index of the closest map color
+     */
+    public int nearest(int rgb) {
+        int red = rgb >> 16 & 0xFF;
+        int green = rgb >> 8 & 0xFF;
+        int blue = rgb & 0xFF;
+
+        int nearest = 0;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < palette.length; i++) {
+            int color = palette[i];
+            if (color == -1) {
+                continue;
+            }
+            int dr = (color >> 16 & 0xFF) - red;
+            int dg = (color >> 8 & 0xFF) - green;
+            int db = (color & 0xFF) - blue;
+            int distance = dr * dr + dg * dg + db * db;
+            if (distance < nearestDistance) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Looks up the closest map color in the precomputed table. Colors in the same cell of the RGB cube share a result,
+     * so this may differ slightly from {@link #nearest(int)}.
+     *
+     * @param rgb the color as 0xRRGGBB
+     * @return the index of the closest map color
+     */
+    public int lookup(int rgb) {
+        return table[getCell(rgb)] & 0xFF;
+    }
+
+    public int[] getPalette() {
+        return palette;
+    }
+
+    /**
+     * @return the table, indexed by (r >> 3) << 10 | (g >> 3) << 5 | (b >> 3)
+     */
+    public byte[] getTable() {
+        return table;
+    }
+
+    private static int getCell(int rgb) {
+        int shift = 8 - BITS_PER_CHANNEL;
+        int r = (rgb >> 16 & 0xFF) >> shift;
+        int g = (rgb >> 8 & 0xFF) >> shift;
+        int b = (rgb & 0xFF) >> shift;
+        return r << (BITS_PER_CHANNEL * 2) | g << BITS_PER_CHANNEL | b;
+    }
+}
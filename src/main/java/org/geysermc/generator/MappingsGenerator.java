@@ -5,7 +5,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.gson.*;
 import com.google.gson.reflect.TypeToken;
-import com.google.gson.stream.JsonWriter;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.core.BlockPos;
@@ -26,6 +25,7 @@ import net.minecraft.world.flag.FeatureFlags;
 import net.minecraft.world.item.*;
 import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.enchantment.Enchantment;
+import net.minecraft.world.level.EmptyBlockGetter;
 import net.minecraft.world.level.block.*;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.Property;
@@ -34,11 +34,15 @@ import net.minecraft.world.level.material.PushReaction;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.Vec3;
 import org.apache.commons.lang3.tuple.Pair;
-import org.cloudburstmc.nbt.NBTInputStream;
-import org.cloudburstmc.nbt.NbtList;
 import org.cloudburstmc.nbt.NbtMap;
-import org.cloudburstmc.nbt.NbtType;
 import org.cloudburstmc.protocol.bedrock.data.LevelEvent;
+import org.geysermc.generator.jfr.BlockRemapEvent;
+import org.geysermc.generator.jfr.InteractionProbeEvent;
+import org.geysermc.generator.jfr.ResourceLoadEvent;
+import org.geysermc.generator.jfr.StateMapperEvent;
+import org.geysermc.generator.output.MappingsWriter;
+import org.geysermc.generator.output.PrettyJsonEncoder;
+import org.geysermc.generator.output.StringTable;
 import org.geysermc.generator.state.StateMapper;
 import org.geysermc.generator.state.StateRemapper;
 import org.jetbrains.annotations.Nullable;
@@ -50,6 +54,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -57,8 +62,8 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
 
 import static org.mockito.Mockito.*;
 
@@ -117,8 +122,6 @@ public class MappingsGenerator {
     }
 
     public static final Map<String, String> JAVA_TO_BEDROCK_ITEM_OVERRIDE = new HashMap<>();
-    public static final List<String> VALID_BEDROCK_ITEMS = new ArrayList<>();
-    public static final Map<String, List<String>> STATES = new HashMap<>();
     private static final List<String> POTTABLE_BLOCK_IDENTIFIERS = new ArrayList<>();
 
     static {
@@ -141,10 +144,52 @@ public class MappingsGenerator {
 
     private static final Gson GSON = new Gson();
 
+    /**
+     * The palette-dependent output of one palette set, kept to write the delta to the next version
+     */
+    private record GeneratedPalette<T>(PaletteSet paletteSet, T palette, int[] runtimeIds) {
+    }
+
     private final Multimap<String, StateMapper<?>> stateMappers = HashMultimap.create();
 
-    public void generateBlocks() {
-        Reflections ref = new Reflections("org.geysermc.generator.state.type");
+    private final MappingsWriter output;
+    private final ClassLoader mapperClassLoader;
+
+    private Remapper remapper;
+
+    public MappingsGenerator() {
+        this(MappingsWriter.create(List.of(PrettyJsonEncoder.NAME)));
+    }
+
+    public MappingsGenerator(MappingsWriter output) {
+        this(output, MappingsGenerator.class.getClassLoader());
+    }
+
+    /**
+     * @param mapperClassLoader the class loader to load the state mappers with
+     */
+    public MappingsGenerator(MappingsWriter output, ClassLoader mapperClassLoader) {
+        this.output = output;
+        this.mapperClassLoader = mapperClassLoader;
+    }
+
+    /**
+     * Clears everything that generating fills in, so that the next generator starts from the input files again.
+     */
+    public static void resetCaches() {
+        BLOCK_ENTRIES.clear();
+        ITEM_ENTRIES.clear();
+        SOUND_ENTRIES.clear();
+        JAVA_TO_BEDROCK_ITEM_OVERRIDE.clear();
+        COLLISION_LIST.clear();
+        while (ALL_PLANKS.size() != 0) {
+            ALL_PLANKS.remove(0);
+        }
+    }
+
+    private void loadStateMappers() {
+        this.stateMappers.clear();
+        Reflections ref = new Reflections("org.geysermc.generator.state.type", mapperClassLoader);
         for (Class<?> clazz : ref.getTypesAnnotatedWith(StateRemapper.class)) {
             try {
                 StateMapper<?> stateMapper = (StateMapper<?>) clazz.getDeclaredConstructor().newInstance();
@@ -153,167 +198,603 @@ public class MappingsGenerator {
                 e.printStackTrace();
             }
         }
-        try {
-            NbtList<NbtMap> palette;
-            File blockPalette = new File("palettes/blockpalette.nbt");
-            if (!blockPalette.exists()) {
-                System.out.println("Could not find block palette (blockpalette.nbt), please refer to the README in the palettes directory.");
-                return;
+    }
+
+    /**
+     * Loads what block remapping needs: the state mappers and the existing block mappings. Anything already loaded is kept.
+     */
+    void loadBlockInputs() throws IOException {
+        if (this.stateMappers.isEmpty()) {
+            loadStateMappers();
+        }
+        if (BLOCK_ENTRIES.isEmpty()) {
+            try (Reader reader = new FileReader("mappings/blocks.json")) {
+                Map<String, BlockEntry> map = GSON.fromJson(reader, new TypeToken<Map<String, BlockEntry>>() {}.getType());
+                BLOCK_ENTRIES.putAll(map);
             }
+        }
+    }
 
-            try {
-                InputStream stream = new FileInputStream(blockPalette);
+    /**
+     * Loads what item remapping needs: the existing item mappings, the identifier overrides and the planks. Anything already loaded is kept.
+     */
+    void loadItemInputs() throws IOException {
+        if (ITEM_ENTRIES.isEmpty()) {
+            try (Reader reader = new FileReader("mappings/items.json")) {
+                Map<String, ItemEntry> map = GSON.fromJson(reader, new TypeToken<Map<String, ItemEntry>>() {}.getType());
+                ITEM_ENTRIES.putAll(map);
+            }
+        }
 
-                try (NBTInputStream nbtInputStream = new NBTInputStream(new DataInputStream(new GZIPInputStream(stream)))) {
-                    NbtMap ret = (NbtMap) nbtInputStream.readTag();
-                    palette = (NbtList<NbtMap>) ret.getList("blocks", NbtType.COMPOUND);
+        if (JAVA_TO_BEDROCK_ITEM_OVERRIDE.isEmpty()) {
+            // Fix some discrepancies - key is the Java string and value is the Bedrock string
+
+            // Conflicts
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:grass", "minecraft:tallgrass"); // Conflicts with grass block
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:grass_block", "minecraft:grass");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:map", "minecraft:empty_map"); // Conflicts with filled map
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:melon", "minecraft:melon_block"); // Conflicts with melon slice
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:nether_brick", "minecraft:netherbrick"); // This is the item; the block conflicts
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:nether_bricks", "minecraft:nether_brick");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:snow", "minecraft:snow_layer"); // Conflicts with snow block
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:snow_block", "minecraft:snow");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:stone_stairs", "minecraft:normal_stone_stairs"); // Conflicts with cobblestone stairs
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:cobblestone_stairs", "minecraft:stone_stairs");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:stonecutter", "minecraft:stonecutter_block"); // Conflicts with, surprisingly, the OLD MCPE stonecutter
+
+            // Changed names
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:frogspawn", "minecraft:frog_spawn");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:glow_item_frame", "minecraft:glow_frame");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:item_frame", "minecraft:frame");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:oak_door", "minecraft:wooden_door");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:shulker_box", "minecraft:undyed_shulker_box");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:small_dripleaf", "minecraft:small_dripleaf_block");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:waxed_copper_block", "minecraft:waxed_copper");
+            JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:zombified_piglin_spawn_egg", "minecraft:zombie_pigman_spawn_egg");
+        }
+
+        if (ALL_PLANKS.size() == 0) {
+            for (int i = 0; i < BuiltInRegistries.ITEM.size(); i++) {
+                ResourceLocation key = BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(i));
+                if (key.getPath().endsWith("planks")) {
+                    ALL_PLANKS.add(key.toString());
                 }
-            } catch (IOException e) {
-                throw new RuntimeException("Unable to get blocks from block palette", e);
             }
+        }
+    }
+
+    /**
+     * @return the remapper used by this generator, which answers single block states and items on demand
+     */
+    public Remapper getRemapper() {
+        if (remapper == null) {
+            remapper = new Remapper(this, Remapper.DEFAULT_CACHE_SIZE);
+        }
+        return remapper;
+    }
 
+    /**
+     * Maps a single block state against the palettes blocks.json is mapped against, without writing anything.
+     *
+     * @param identifier the Java block state string, such as minecraft:oak_stairs[facing=north,half=bottom,shape=straight,waterlogged=false]
+     * @return the entry the block state would have in blocks.json, or null if there is no such block state
+     */
+    public JsonObject remapBlockState(String identifier) {
+        for (BlockState state : getAllStates()) {
+            if (blockStateToString(state).equals(identifier)) {
+                return getRemapper().remap(state);
+            }
+        }
+        return null;
+    }
+
+    public void generateBlocks() {
+        List<PaletteSet> paletteSets = PaletteSet.find();
+        if (!paletteSets.get(0).blockPalette().exists()) {
+            System.out.println("Could not find block palette (blockpalette.nbt), please refer to the README in the palettes directory.");
+            return;
+        }
+
+        try {
             File mappings = new File("mappings/blocks.json");
             File collision = new File("mappings/collision.json");
+            File columnTable = new File("mappings/block_columns.bin");
+            File collisionTable = new File("mappings/collision_table.bin");
+            File stateHash = new File("mappings/block_state_hash.bin");
             if (!mappings.exists()) {
                 System.out.println("Could not find mappings submodule! Did you clone them?");
                 return;
             }
 
-            try {
-                Type mapType = new TypeToken<Map<String, BlockEntry>>() {}.getType();
-                Map<String, BlockEntry> map = GSON.fromJson(new FileReader(mappings), mapType);
-                BLOCK_ENTRIES.putAll(map);
-            } catch (FileNotFoundException ex) {
-                ex.printStackTrace();
+            loadBlockInputs();
+
+            // Everything that only depends on Java is worked out once, and shared by every palette
+            List<BlockState> allStates = getAllStates();
+            List<JavaBlockRemap> javaRemaps = new ArrayList<>(allStates.size());
+            BlockColumnTable columns = new BlockColumnTable(allStates.size());
+            int[] collisionIndexes = new int[allStates.size()];
+            List<String> stateStrings = new ArrayList<>(allStates.size());
+            for (BlockState blockState : allStates) {
+                JavaBlockRemap remap = getRemapper().remapJava(blockState);
+                javaRemaps.add(remap);
+                stateStrings.add(remap.identifier());
+                columns.add(Block.getId(blockState), remap.attributes());
+                collisionIndexes[Block.getId(blockState)] = remap.attributes().get("collision_index").getAsInt();
             }
 
-            for (NbtMap entry : palette) {
-                String identifier = entry.getString("name");
-                if (!STATES.containsKey(identifier)) {
-                    NbtMap states = entry.getCompound("states");
-                    List<String> stateKeys = new ArrayList<>(states.keySet());
-                    // ignore some useless keys
-                    stateKeys.remove("stone_slab_type");
-                    STATES.put(identifier, stateKeys);
+            // Write collision types
+            output.write(collision, COLLISION_LIST);
+            CollisionTable.write(collisionTable, COLLISION_LIST, collisionIndexes);
+
+            // The scalar attributes from blocks.json as one array per attribute, for consumers that bulk-read them
+            columns.write(columnTable);
+
+            // Block state string -> Java state ID, without needing a map of every state string
+            PerfectHash perfectHash = PerfectHash.build(stateStrings);
+            perfectHash.verify(stateStrings);
+            perfectHash.write(stateHash);
+
+            // The Bedrock states differ between palettes, so resolve them for each palette separately
+            PaletteSet latest = PaletteSet.latest(paletteSets);
+            List<GeneratedPalette<BlockPalette>> generated = paletteSets.parallelStream().map(paletteSet -> {
+                try {
+                    return generateBlocks(paletteSet, javaRemaps, paletteSet == latest);
+                } catch (IOException ex) {
+                    System.out.println(paletteSet.prefix() + "Failed to write block mappings!");
+                    ex.printStackTrace();
+                    return null;
+                }
+            }).toList();
+
+            // Each version also gets the changes from the version before it
+            for (int i = 1; i < generated.size(); i++) {
+                GeneratedPalette<BlockPalette> base = generated.get(i - 1);
+                GeneratedPalette<BlockPalette> target = generated.get(i);
+                if (base != null && target != null) {
+                    PaletteDelta.writeBlocks(base.paletteSet(), base.palette(), base.runtimeIds(),
+                            target.paletteSet(), target.palette(), target.runtimeIds());
                 }
             }
-            // Some State Corrections
-            STATES.put("minecraft:attached_pumpkin_stem", Arrays.asList("growth", "facing_direction"));
-            STATES.put("minecraft:attached_melon_stem", Arrays.asList("growth", "facing_direction"));
 
-            GsonBuilder builder = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping();
-            JsonObject rootObject = new JsonObject();
+            System.out.println("Some block states need to be manually mapped, please search for MANUALMAP in blocks.json, if there are no occurrences you do not need to do anything.");
+            System.out.println("Finished block writing process!");
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
 
-            for (BlockState blockState : getAllStates()) {
-                rootObject.add(blockStateToString(blockState), getRemapBlock(blockState, blockStateToString(blockState)));
+    /**
+     * Maps only the block states that match the filter, and updates their entries in blocks.json in place.
+     * The tables built from every block state are left as they are, so run without a filter before committing.
+     *
+     * @param filter matched against both the block state string and the block identifier, so it can select
+     *               either single states or every state of a block, such as minecraft:oak_hanging_sign
+     */
+    public void generateBlocks(Pattern filter) {
+        File mappings = new File("mappings/blocks.json");
+        if (!mappings.exists()) {
+            System.out.println("Could not find blocks.json to update, please generate without a filter first.");
+            return;
+        }
+
+        try {
+            loadBlockInputs();
+            // Reuse the existing collision indexes, so the updated states point at the same entries in collision.json
+            File collision = new File("mappings/collision.json");
+            if (COLLISION_LIST.isEmpty() && collision.exists()) {
+                try (Reader reader = new FileReader(collision)) {
+                    List<List<List<Double>>> collisions = GSON.fromJson(reader, new TypeToken<List<List<List<Double>>>>() {}.getType());
+                    COLLISION_LIST.addAll(collisions);
+                }
             }
+            int collisionCount = COLLISION_LIST.size();
 
-            FileWriter writer = new FileWriter(mappings);
-            builder.create().toJson(rootObject, writer);
-            writer.close();
+            List<JavaBlockRemap> javaRemaps = new ArrayList<>();
+            for (BlockState blockState : getAllStates()) {
+                String javaIdentifier = blockStateToString(blockState);
+                String blockIdentifier = BuiltInRegistries.BLOCK.getKey(blockState.getBlock()).toString();
+                if (filter.matcher(javaIdentifier).matches() || filter.matcher(blockIdentifier).matches()) {
+                    javaRemaps.add(getJavaRemapBlock(blockState, javaIdentifier));
+                }
+            }
+            if (javaRemaps.isEmpty()) {
+                System.out.println("No block states match " + filter.pattern());
+                return;
+            }
 
-            // Write collision types
-            writer = new FileWriter(collision);
-            builder.create().toJson(COLLISION_LIST, writer);
-            writer.close();
+            PaletteSet paletteSet = PaletteSet.latest(PaletteSet.find());
+            BlockPalette palette = BlockPalette.load(paletteSet.blockPalette());
+            Map<String, List<String>> stateKeys = getStateKeys(palette);
+            JsonObject entries = new JsonObject();
+            for (JavaBlockRemap javaRemap : javaRemaps) {
+                JsonObject remapped = getRemapBlock(javaRemap, stateKeys);
+                String bedrockIdentifier = remapped.get("bedrock_identifier").getAsString();
+                JsonObject bedrockStates = remapped.getAsJsonObject("bedrock_states");
+                if (palette.getRuntimeId(bedrockIdentifier, bedrockStates) == -1) {
+                    System.out.println(paletteSet.prefix() + "ERROR: Unable to find a Bedrock runtime ID for " + javaRemap.identifier() + " -> " + bedrockIdentifier + (bedrockStates != null ? bedrockStates : ""));
+                }
+                entries.add(javaRemap.identifier(), remapped);
+            }
+            output.update(mappings, entries);
 
-            System.out.println("Some block states need to be manually mapped, please search for MANUALMAP in blocks.json, if there are no occurrences you do not need to do anything.");
-            System.out.println("Finished block writing process!");
+            if (COLLISION_LIST.size() > collisionCount) {
+                output.write(collision, COLLISION_LIST);
+                System.out.println("Added " + (COLLISION_LIST.size() - collisionCount) + " collisions to collision.json; collision_table.bin is out of date until the next full run.");
+            }
+            System.out.println("Updated " + javaRemaps.size() + " block states matching " + filter.pattern());
         } catch (IOException ex) {
             ex.printStackTrace();
         }
     }
 
-    public void generateItems() {
-        try {
-            File mappings = new File("mappings/items.json");
-            File itemPalette = new File("palettes/runtime_item_states.json");
-            if (!mappings.exists()) {
-                System.out.println("Could not find mappings submodule! Did you clone them?");
-                return;
+    /**
+     * @param writeMappings whether these are the palettes blocks.json is mapped against, see {@link PaletteSet#latest(List)}
+     */
+    private GeneratedPalette<BlockPalette> generateBlocks(PaletteSet paletteSet, List<JavaBlockRemap> javaRemaps, boolean writeMappings) throws IOException {
+        BlockPalette palette = BlockPalette.load(paletteSet.blockPalette());
+        Map<String, List<String>> stateKeys = getStateKeys(palette);
+
+        JsonObject rootObject = new JsonObject();
+        int[] runtimeIds = new int[javaRemaps.size()];
+        int[] hashes = new int[javaRemaps.size()];
+        PaletteConformanceReport report = new PaletteConformanceReport(palette);
+        for (int stateId = 0; stateId < javaRemaps.size(); stateId++) {
+            JavaBlockRemap javaRemap = javaRemaps.get(stateId);
+            String javaIdentifier = javaRemap.identifier();
+            BlockRemapEvent event = new BlockRemapEvent();
+            event.begin();
+            JsonObject remapped = getRemapBlock(javaRemap, stateKeys);
+            rootObject.add(javaIdentifier, remapped);
+            if (event.shouldCommit()) {
+                event.stateId = stateId;
+                event.javaIdentifier = javaIdentifier;
+                event.bedrockIdentifier = remapped.get("bedrock_identifier").getAsString();
+                event.palette = paletteSet.version();
+            }
+            event.commit();
+
+            // Resolve the Bedrock runtime ID now, rather than Geyser searching the palette on every startup
+            String bedrockIdentifier = remapped.get("bedrock_identifier").getAsString();
+            JsonObject bedrockStates = remapped.getAsJsonObject("bedrock_states");
+            int runtimeId = palette.getRuntimeId(bedrockIdentifier, bedrockStates);
+            if (runtimeId == -1) {
+                System.out.println(paletteSet.prefix() + "ERROR: Unable to find a Bedrock runtime ID for " + javaIdentifier + " -> " + bedrockIdentifier + (bedrockStates != null ? bedrockStates : ""));
+                report.addUnmatched(stateId, javaIdentifier, bedrockIdentifier, bedrockStates);
+            }
+            runtimeIds[stateId] = runtimeId;
+            hashes[stateId] = runtimeId != -1 ? palette.getHash(runtimeId) : BlockPalette.UNKNOWN_HASH;
+        }
+
+        if (writeMappings) {
+            output.write(new File("mappings/blocks.json"), rootObject);
+
+            // Write the per-block form, making sure it expands back to exactly what was written to blocks.json
+            JsonObject factorizedObject = BlockMappingsFactorizer.factorize(rootObject);
+            BlockMappingsFactorizer.verify(rootObject, factorizedObject);
+            // Nulls mark the states that don't have a value, so they have to be kept
+            output.write(new File("mappings/blocks_factorized.json"), factorizedObject, MappingsWriter.DEFAULT_INDENT, true);
+        }
+
+        // Java state ID -> Bedrock runtime ID, with -1 for any state that could not be resolved
+        BinaryTableWriter.write(paletteSet.output("block_runtime_ids.bin"), "BRID", out -> BinaryTableWriter.writeIntArray(out, runtimeIds));
+        File conformanceReport = paletteSet.report("palette_conformance.json");
+        report.write(conformanceReport);
+        if (report.size() != 0) {
+            System.out.println(paletteSet.prefix() + "ERROR: " + report.size() + " block states do not match any entry in the Bedrock block palette! See " + conformanceReport.getName() + " for the closest matches.");
+        }
+
+        // Java state ID -> Bedrock network block hash, for when Bedrock is told to use hashed block IDs
+        for (Map.Entry<Integer, List<Integer>> hashCollision : palette.findHashCollisions().entrySet()) {
+            String entries = hashCollision.getValue().stream().map(id -> palette.getEntries().get(id).toString()).collect(Collectors.joining(", "));
+            System.out.println(paletteSet.prefix() + "ERROR: Block hash " + hashCollision.getKey() + " is shared by multiple palette entries: " + entries);
+        }
+        BinaryTableWriter.write(paletteSet.output("block_hashes.bin"), "BHSH", out -> BinaryTableWriter.writeIntArray(out, hashes));
+        return new GeneratedPalette<>(paletteSet, palette, runtimeIds);
+    }
+
+    /**
+     * @return the state keys of every block in the palette, keyed by Bedrock identifier
+     */
+    static Map<String, List<String>> getStateKeys(BlockPalette palette) {
+        Map<String, List<String>> stateKeys = new HashMap<>();
+        for (NbtMap entry : palette.getEntries()) {
+            String identifier = entry.getString("name");
+            if (!stateKeys.containsKey(identifier)) {
+                NbtMap states = entry.getCompound("states");
+                List<String> keys = new ArrayList<>(states.keySet());
+                // ignore some useless keys
+                keys.remove("stone_slab_type");
+                stateKeys.put(identifier, keys);
             }
-            if (!itemPalette.exists()) {
-                System.out.println("Could not find item palette (runtime_item_states.json), please refer to the README in the palettes directory.");
+        }
+        // Some State Corrections
+        stateKeys.put("minecraft:attached_pumpkin_stem", Arrays.asList("growth", "facing_direction"));
+        stateKeys.put("minecraft:attached_melon_stem", Arrays.asList("growth", "facing_direction"));
+        return stateKeys;
+    }
+
+    public void generateItems() {
+        File mappings = new File("mappings/items.json");
+        List<PaletteSet> paletteSets = PaletteSet.find();
+        if (!mappings.exists()) {
+            System.out.println("Could not find mappings submodule! Did you clone them?");
+            return;
+        }
+        for (PaletteSet paletteSet : paletteSets) {
+            if (!paletteSet.itemPalette().exists()) {
+                System.out.println(paletteSet.prefix() + "Could not find item palette (runtime_item_states.json), please refer to the README in the palettes directory.");
                 return;
             }
+        }
 
+        JsonObject rootObject = new JsonObject();
+        for (int i = 0; i < BuiltInRegistries.ITEM.size(); i++) {
+            Item value = BuiltInRegistries.ITEM.byId(i);
+            rootObject.add(BuiltInRegistries.ITEM.getKey(value).toString(), getRemapper().remap(value));
+        }
+        try {
+            output.write(mappings, rootObject);
+        } catch (IOException ex) {
+            System.out.println("Failed to write item mappings!");
+            ex.printStackTrace();
+            return;
+        }
+
+        // The Bedrock runtime IDs differ between palettes, so resolve them for each palette separately
+        List<GeneratedPalette<Map<String, Integer>>> generated = paletteSets.parallelStream().map(paletteSet -> {
             try {
-                Type mapType = new TypeToken<Map<String, ItemEntry>>() {}.getType();
-                Map<String, ItemEntry> map = GSON.fromJson(new FileReader(mappings), mapType);
-                ITEM_ENTRIES.putAll(map);
-            } catch (FileNotFoundException ex) {
+                return generateItems(paletteSet, rootObject);
+            } catch (IOException ex) {
+                System.out.println(paletteSet.prefix() + "Failed to write item mappings!");
                 ex.printStackTrace();
+                return null;
+            }
+        }).toList();
+
+        // Each version also gets the changes from the version before it
+        for (int i = 1; i < generated.size(); i++) {
+            GeneratedPalette<Map<String, Integer>> base = generated.get(i - 1);
+            GeneratedPalette<Map<String, Integer>> target = generated.get(i);
+            if (base != null && target != null) {
+                try {
+                    PaletteDelta.writeItems(base.paletteSet(), base.palette(), base.runtimeIds(),
+                            target.paletteSet(), target.palette(), target.runtimeIds());
+                } catch (IOException ex) {
+                    System.out.println(target.paletteSet().prefix() + "Failed to write item delta!");
+                    ex.printStackTrace();
+                }
             }
+        }
+        System.out.println("Finished item writing process!");
 
-            try {
-                Type listType = new TypeToken<List<PaletteItemEntry>>(){}.getType();
-                List<PaletteItemEntry> entries = GSON.fromJson(new FileReader(itemPalette), listType);
-                entries.forEach(item -> VALID_BEDROCK_ITEMS.add(item.getIdentifier()));
-                // Fix some discrepancies - key is the Java string and value is the Bedrock string
-
-                // Conflicts
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:grass", "minecraft:tallgrass"); // Conflicts with grass block
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:grass_block", "minecraft:grass");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:map", "minecraft:empty_map"); // Conflicts with filled map
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:melon", "minecraft:melon_block"); // Conflicts with melon slice
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:nether_brick", "minecraft:netherbrick"); // This is the item; the block conflicts
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:nether_bricks", "minecraft:nether_brick");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:snow", "minecraft:snow_layer"); // Conflicts with snow block
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:snow_block", "minecraft:snow");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:stone_stairs", "minecraft:normal_stone_stairs"); // Conflicts with cobblestone stairs
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:cobblestone_stairs", "minecraft:stone_stairs");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:stonecutter", "minecraft:stonecutter_block"); // Conflicts with, surprisingly, the OLD MCPE stonecutter
-
-                // Changed names
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:frogspawn", "minecraft:frog_spawn");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:glow_item_frame", "minecraft:glow_frame");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:item_frame", "minecraft:frame");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:oak_door", "minecraft:wooden_door");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:shulker_box", "minecraft:undyed_shulker_box");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:small_dripleaf", "minecraft:small_dripleaf_block");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:waxed_copper_block", "minecraft:waxed_copper");
-                JAVA_TO_BEDROCK_ITEM_OVERRIDE.put("minecraft:zombified_piglin_spawn_egg", "minecraft:zombie_pigman_spawn_egg");
-            } catch (FileNotFoundException ex) {
-                ex.printStackTrace();
+        // Check for duplicate mappings
+        Map<JsonElement, String> itemDuplicateCheck = new HashMap<>();
+        for (Map.Entry<String, JsonElement> object : rootObject.entrySet()) {
+            if (itemDuplicateCheck.containsKey(object.getValue())) {
+                System.out.println("Possible duplicate items (" + object.getKey() + " and " + itemDuplicateCheck.get(object.getValue()) + ") in mappings: " + object.getValue());
+            } else {
+                itemDuplicateCheck.put(object.getValue(), object.getKey());
             }
+        }
+    }
 
-            GsonBuilder builder = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping();
-            JsonObject rootObject = new JsonObject();
+    /**
+     * Maps only the items whose identifier matches the filter, and updates their entries in items.json in place.
+     * item_runtime_ids.bin is left as it is, so run without a filter before committing.
+     */
+    public void generateItems(Pattern filter) {
+        File mappings = new File("mappings/items.json");
+        if (!mappings.exists()) {
+            System.out.println("Could not find items.json to update, please generate without a filter first.");
+            return;
+        }
 
-            for (int i = 0; i < BuiltInRegistries.ITEM.size(); i++) {
-                Item value = BuiltInRegistries.ITEM.byId(i);
-                ResourceLocation key = BuiltInRegistries.ITEM.getKey(value);
-                if (key.getPath().endsWith("planks")) {
-                    ALL_PLANKS.add(key.toString());
+        JsonObject entries = new JsonObject();
+        for (Item item : BuiltInRegistries.ITEM) {
+            String key = BuiltInRegistries.ITEM.getKey(item).toString();
+            if (filter.matcher(key).matches()) {
+                entries.add(key, getRemapper().remap(item));
+            }
+        }
+        if (entries.size() == 0) {
+            System.out.println("No items match " + filter.pattern());
+            return;
+        }
+
+        try {
+            output.update(mappings, entries);
+        } catch (IOException ex) {
+            System.out.println("Failed to update item mappings!");
+            ex.printStackTrace();
+            return;
+        }
+        System.out.println("Updated " + entries.size() + " items matching " + filter.pattern());
+    }
+
+    private GeneratedPalette<Map<String, Integer>> generateItems(PaletteSet paletteSet, JsonObject items) throws IOException {
+        Map<String, Integer> bedrockRuntimeIds = new HashMap<>();
+        Type listType = new TypeToken<List<PaletteItemEntry>>(){}.getType();
+        ResourceLoadEvent event = new ResourceLoadEvent();
+        event.begin();
+        try (Reader reader = new FileReader(paletteSet.itemPalette())) {
+            List<PaletteItemEntry> entries = GSON.fromJson(reader, listType);
+            entries.forEach(item -> bedrockRuntimeIds.putIfAbsent(item.getIdentifier(), item.getRuntimeId()));
+        }
+        if (event.shouldCommit()) {
+            event.path = paletteSet.itemPalette().getPath();
+            event.size = paletteSet.itemPalette().length();
+        }
+        event.commit();
+
+        for (Map.Entry<String, JsonElement> item : items.entrySet()) {
+            String bedrockIdentifier = item.getValue().getAsJsonObject().get("bedrock_identifier").getAsString();
+            if (!bedrockRuntimeIds.containsKey(bedrockIdentifier)) {
+                System.out.println(paletteSet.prefix() + bedrockIdentifier.replace("minecraft:", "") + " not found in Bedrock runtime item states!");
+            }
+        }
+
+        int[] runtimeIds = writeItemRuntimeIds(paletteSet, items, bedrockRuntimeIds);
+        return new GeneratedPalette<>(paletteSet, bedrockRuntimeIds, runtimeIds);
+    }
+
+    /**
+     * Writes the Bedrock runtime ID and data of every Java item, indexed by Java item ID, followed by the reverse
+     * mapping: every Bedrock runtime ID and data pair with the Java items that map to it. The table is written to
+     * item_runtime_ids.bin in the output directory of the palette set.
+     *
+     * @return the Bedrock runtime ID of every Java item
+     */
+    private int[] writeItemRuntimeIds(PaletteSet paletteSet, JsonObject items, Map<String, Integer> bedrockRuntimeIds) throws IOException {
+        int[] runtimeIds = new int[BuiltInRegistries.ITEM.size()];
+        int[] bedrockData = new int[BuiltInRegistries.ITEM.size()];
+        // Sorted by runtime ID, then data
+        Map<Long, List<Integer>> javaItemsByBedrockItem = new TreeMap<>();
+        for (int i = 0; i < BuiltInRegistries.ITEM.size(); i++) {
+            String javaIdentifier = BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(i)).toString();
+            JsonObject item = items.getAsJsonObject(javaIdentifier);
+            String bedrockIdentifier = item.get("bedrock_identifier").getAsString();
+
+            runtimeIds[i] = bedrockRuntimeIds.getOrDefault(bedrockIdentifier, -1);
+            bedrockData[i] = item.get("bedrock_data").getAsInt();
+            if (runtimeIds[i] == -1) {
+                System.out.println(paletteSet.prefix() + "ERROR: Unable to find a Bedrock runtime ID for " + javaIdentifier + " -> " + bedrockIdentifier);
+                continue;
+            }
+            javaItemsByBedrockItem.computeIfAbsent((long) runtimeIds[i] << 32 | (bedrockData[i] & 0xFFFFFFFFL), $ -> new ArrayList<>()).add(i);
+        }
+
+        BinaryTableWriter.write(paletteSet.output("item_runtime_ids.bin"), "ITEM", out -> {
+            BinaryTableWriter.writeIntArray(out, runtimeIds);
+            BinaryTableWriter.writeIntArray(out, bedrockData);
+
+            out.writeInt(javaItemsByBedrockItem.size());
+            for (Map.Entry<Long, List<Integer>> entry : javaItemsByBedrockItem.entrySet()) {
+                List<Integer> javaIds = entry.getValue();
+                out.writeInt((int) (entry.getKey() >> 32));
+                out.writeInt(entry.getKey().intValue());
+                // Several Java items share this Bedrock item, so it can't be translated back without more context
+                out.writeBoolean(javaIds.size() > 1);
+                out.writeInt(javaIds.size());
+                for (int javaId : javaIds) {
+                    out.writeInt(javaId);
                 }
             }
+        });
+        return runtimeIds;
+    }
 
-            for (int i = 0; i < BuiltInRegistries.ITEM.size(); i++) {
-                Item value = BuiltInRegistries.ITEM.byId(i);
-                String key = BuiltInRegistries.ITEM.getKey(value).toString();
-                rootObject.add(key, getRemapItem(key, value, Block.byItem(value)));
+    public void generateBlockBreakTimes() {
+        File breakTimes = new File("mappings/block_break_times.bin");
+        if (!breakTimes.getParentFile().exists()) {
+            System.out.println("Could not find mappings submodule! Did you clone them?");
+            return;
+        }
+
+        // The first column is the empty hand, followed by every tool
+        List<Item> tools = new ArrayList<>();
+        tools.add(Items.AIR);
+        for (Item item : BuiltInRegistries.ITEM) {
+            if (item instanceof TieredItem || item instanceof ShearsItem) {
+                tools.add(item);
             }
+        }
 
-            FileWriter writer = new FileWriter(mappings);
-            builder.create().toJson(rootObject, writer);
-            writer.close();
-            System.out.println("Finished item writing process!");
+        List<BlockState> allStates = getAllStates();
+        short[] ticks = new short[allStates.size() * tools.size()];
 
-            // Check for duplicate mappings
-            Map<JsonElement, String> itemDuplicateCheck = new HashMap<>();
-            for (Map.Entry<String, JsonElement> object : rootObject.entrySet()) {
-                if (itemDuplicateCheck.containsKey(object.getValue())) {
-                    System.out.println("Possible duplicate items (" + object.getKey() + " and " + itemDuplicateCheck.get(object.getValue()) + ") in mappings: " + object.getValue());
-                } else {
-                    itemDuplicateCheck.put(object.getValue(), object.getKey());
+        // Tools check block tags to know what they're effective against
+        Util.bindBlockTags();
+        try {
+            for (BlockState state : allStates) {
+                int offset = Block.getId(state) * tools.size();
+                for (int i = 0; i < tools.size(); i++) {
+                    ticks[offset + i] = getBreakTicks(state, new ItemStack(tools.get(i)));
                 }
             }
-        } catch (IOException ex) {
-            ex.printStackTrace();
+        } finally {
+            Util.resetBlockTags();
+        }
+
+        try {
+            BinaryTableWriter.write(breakTimes, "BRKT", out -> {
+                out.writeInt(tools.size());
+                for (Item tool : tools) {
+                    String[] toolType = getToolType(tool);
+                    out.writeInt(BuiltInRegistries.ITEM.getId(tool));
+                    out.writeUTF(toolType[0]);
+                    out.writeUTF(toolType[1]);
+                }
+
+                // State-major: the ticks for state N and tool column T are at N * columns + T
+                out.writeInt(allStates.size());
+                for (short value : ticks) {
+                    out.writeShort(value);
+                }
+            });
+            System.out.println("Finished block break time writing process!");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Calculates how long it takes to break a block in survival with the given item, without enchantments or effects,
+     * following the logic of BlockBehaviour#getDestroyProgress.
+     *
+     * @return the amount of ticks, 0 if the block breaks instantly, or -1 if it can't be broken
+     */
+    private static short getBreakTicks(BlockState state, ItemStack tool) {
+        float hardness = state.getDestroySpeed(null, null);
+        if (hardness < 0) {
+            return -1;
+        }
+        if (hardness == 0) {
+            return 0;
+        }
+
+        boolean correctTool = !state.requiresCorrectToolForDrops() || tool.isCorrectToolForDrops(state);
+        float progress = tool.getDestroySpeed(state) / hardness / (correctTool ? 30 : 100);
+        if (progress >= 1) {
+            return 0;
+        }
+        return (short) Math.min(Short.MAX_VALUE, (int) Math.ceil(1 / progress));
+    }
+
+    /**
+     * @return the tool type and tier of the item, as used by tool_type and tool_tier in items.json. Both are empty for the hand.
+     */
+    private static String[] getToolType(Item item) {
+        String type;
+        if (item instanceof SwordItem) {
+            type = "sword";
+        } else if (item instanceof ShovelItem) {
+            type = "shovel";
+        } else if (item instanceof PickaxeItem) {
+            type = "pickaxe";
+        } else if (item instanceof AxeItem) {
+            type = "axe";
+        } else if (item instanceof HoeItem) {
+            type = "hoe";
+        } else if (item instanceof ShearsItem) {
+            type = "shears";
+        } else {
+            return new String[] {"", ""};
         }
+
+        String path = BuiltInRegistries.ITEM.getKey(item).getPath();
+        String tier = path.endsWith("_" + type) ? path.substring(0, path.length() - type.length() - 1) : "";
+        return new String[] {type, tier};
     }
 
     public void generateSounds() {
+        generateSounds(null);
+    }
+
+    /**
+     * @param filter if not null, only the sounds whose name matches are mapped, and only their entries in sounds.json
+     *               are updated. sound_ids.bin is left as it is.
+     */
+    public void generateSounds(Pattern filter) {
         try {
             File mappings = new File("mappings/sounds.json");
             if (!mappings.exists()) {
@@ -331,20 +812,23 @@ public class MappingsGenerator {
             }
 
             Set<String> validBedrockSounds;
-            FileSystem fileSystem = FileSystems.newFileSystem(Paths.get("bedrockresourcepack.zip"));
+            FileSystem fileSystem = openResourcePack();
 
             try (InputStream stream = fileSystem.provider().newInputStream(fileSystem.getPath("sounds/sound_definitions.json"))) {
                 JsonObject json = JsonParser.parseString(new String(stream.readAllBytes())).getAsJsonObject();
                 validBedrockSounds = new HashSet<>(json.getAsJsonObject("sound_definitions").keySet());
             }
 
-            GsonBuilder builder = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping();
             JsonObject rootObject = new JsonObject();
+            SoundEntry[] entriesById = new SoundEntry[BuiltInRegistries.SOUND_EVENT.size()];
 
             for (SoundEvent soundEvent : BuiltInRegistries.SOUND_EVENT) {
                 ResourceLocation key = BuiltInRegistries.SOUND_EVENT.getKey(soundEvent);
 
                 String path = key.getPath();
+                if (filter != null && !filter.matcher(path).matches()) {
+                    continue;
+                }
                 SoundEntry entry = SOUND_ENTRIES.get(key.getPath());
 
                 if (entry == null) {
@@ -413,11 +897,17 @@ public class MappingsGenerator {
                     object.remove("level_event");
                 }
                 rootObject.add(path, object);
+                entriesById[BuiltInRegistries.SOUND_EVENT.getId(soundEvent)] = entry;
             }
 
-            FileWriter writer = new FileWriter(mappings);
-            builder.create().toJson(rootObject, writer);
-            writer.close();
+            if (filter != null) {
+                output.update(mappings, rootObject);
+                fileSystem.close();
+                System.out.println("Updated " + rootObject.size() + " sounds matching " + filter.pattern());
+                return;
+            }
+            output.write(mappings, rootObject);
+            writeSoundTable(new File("mappings/sound_ids.bin"), entriesById);
             fileSystem.close();
             System.out.println("Finished sound writing process!");
             System.out.println("Some PLACE identifiers need to be manually mapped, please search for MANUALMAP in sounds.json, if there are no occurrences you do not need to do anything.");
@@ -426,11 +916,41 @@ public class MappingsGenerator {
         }
     }
 
+    /**
+     * Writes the sound mappings as arrays indexed by Java sound event ID. Strings are indexes into the
+     * string table at the start of the file, with -1 for none.
+     */
+    private void writeSoundTable(File file, SoundEntry[] entriesById) throws IOException {
+        StringTable strings = new StringTable();
+        int[] playSounds = new int[entriesById.length];
+        int[] eventSounds = new int[entriesById.length];
+        int[] identifiers = new int[entriesById.length];
+        int[] extraData = new int[entriesById.length];
+        BitSet levelEvents = new BitSet(entriesById.length);
+        for (int id = 0; id < entriesById.length; id++) {
+            SoundEntry entry = entriesById[id];
+            playSounds[id] = strings.internNullable(isBlank(entry.getPlaySound()) ? null : entry.getPlaySound());
+            eventSounds[id] = strings.internNullable(isBlank(entry.getEventSound()) ? null : entry.getEventSound());
+            identifiers[id] = strings.internNullable(isBlank(entry.getIdentifier()) ? null : entry.getIdentifier());
+            extraData[id] = entry.getExtraData();
+            levelEvents.set(id, entry.isLevelEvent());
+        }
+
+        BinaryTableWriter.write(file, "SOND", out -> {
+            BinaryTableWriter.writeStringTable(out, strings);
+            BinaryTableWriter.writeIntArray(out, playSounds);
+            BinaryTableWriter.writeIntArray(out, eventSounds);
+            BinaryTableWriter.writeIntArray(out, identifiers);
+            BinaryTableWriter.writeIntArray(out, extraData);
+            BinaryTableWriter.writeBitSet(out, levelEvents, (entriesById.length + 63) / 64);
+        });
+    }
+
     private boolean isBlank(@Nullable String s) {
         return s == null || s.isBlank();
     }
 
-    private boolean updatePlaySound(SoundEntry entry, String javaIdentifier, Set<String> bedrockSounds) {
+    boolean updatePlaySound(SoundEntry entry, String javaIdentifier, Set<String> bedrockSounds) {
         if (bedrockSounds.contains(javaIdentifier)) {
             entry.setPlaySound(javaIdentifier);
             return true;
@@ -495,6 +1015,19 @@ public class MappingsGenerator {
         return false;
     }
 
+    private static FileSystem openResourcePack() throws IOException {
+        ResourceLoadEvent event = new ResourceLoadEvent();
+        event.begin();
+        Path path = Paths.get("bedrockresourcepack.zip");
+        FileSystem fileSystem = FileSystems.newFileSystem(path);
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.size = Files.size(path);
+        }
+        event.commit();
+        return fileSystem;
+    }
+
     public void generateBiomes() {
         try {
             File mappings = new File("mappings/biomes.json");
@@ -524,8 +1057,9 @@ public class MappingsGenerator {
             // Used to know if a biome is valid or not for Bedrock
             JsonObject bedrockBiomes = JsonParser.parseReader(new FileReader(biomeIdMap)).getAsJsonObject();
 
-            Set<ResourceLocation> javaBiomes = VanillaRegistries.createLookup().lookup(Registries.BIOME).get()
-                .listElements().map(ref -> ref.key().location()).collect(Collectors.toSet());
+            // Sorted the same way as when the registry is loaded from the vanilla data pack, so the index is the network ID
+            List<ResourceLocation> javaBiomes = VanillaRegistries.createLookup().lookup(Registries.BIOME).get()
+                .listElements().map(ref -> ref.key().location()).sorted(Comparator.comparing(ResourceLocation::toString)).toList();
 
             // Check for outdated fallback biomes
             Set<String> biomeNames = javaBiomes.stream().map(ResourceLocation::getPath).collect(Collectors.toSet());
@@ -535,6 +1069,8 @@ public class MappingsGenerator {
                 }
             }
 
+            int[] bedrockBiomeIds = new int[javaBiomes.size()];
+            Arrays.fill(bedrockBiomeIds, -1);
             int i = -1;
             for (ResourceLocation javaBiome : javaBiomes) {
                 i++;
@@ -553,12 +1089,18 @@ public class MappingsGenerator {
                 }
 
                 biomesMap.put(javaBiome.toString(), new BiomeEntry(biomeId.getAsInt()));
+                bedrockBiomeIds[i] = biomeId.getAsInt();
             }
 
-            GsonBuilder builder = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping();
-            FileWriter writer = new FileWriter(mappings);
-            builder.create().toJson(biomesMap, writer);
-            writer.close();
+            output.write(mappings, biomesMap);
+
+            // Java biome ID -> Bedrock biome ID, with the Java identifiers so the order can be checked
+            StringTable biomeStrings = new StringTable();
+            javaBiomes.forEach(biome -> biomeStrings.intern(biome.toString()));
+            BinaryTableWriter.write(new File("mappings/biome_ids.bin"), "BIOM", out -> {
+                BinaryTableWriter.writeStringTable(out, biomeStrings);
+                BinaryTableWriter.writeIntArray(out, bedrockBiomeIds);
+            });
             System.out.println("Finished biome writing process!");
         } catch (IOException e) {
             e.printStackTrace();
@@ -599,6 +1141,46 @@ public class MappingsGenerator {
             System.out.println("Failed to write map_colors.txt!");
             e.printStackTrace();
         }
+
+        // The same palette packed as 0xRRGGBB ints, plus the closest map color for each cell of the RGB cube
+        MapColorLookup lookup = new MapColorLookup(MapColorLookup.createPalette());
+        try {
+            BinaryTableWriter.write(new File("./map_colors.bin"), "MAPC", out -> {
+                BinaryTableWriter.writeIntArray(out, lookup.getPalette());
+                out.writeByte(MapColorLookup.BITS_PER_CHANNEL);
+                out.write(lookup.getTable());
+            });
+            System.out.println("Finished map color table writing process!");
+        } catch (IOException e) {
+            System.out.println("Failed to write map_colors.bin!");
+            e.printStackTrace();
+        }
+
+        // The map color of every block state; the final color index is this ID * 4 + the brightness
+        List<BlockState> allStates = getAllStates();
+        byte[] blockMapColors = new byte[allStates.size()];
+        for (BlockState state : allStates) {
+            MapColor mapColor;
+            try {
+                // A few blocks look at their surroundings, which the empty getter answers with air
+                mapColor = state.getMapColor(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+            } catch (Exception e) {
+                System.out.println("Unable to get the map color of " + blockStateToString(state) + ", using none: " + e);
+                mapColor = MapColor.NONE;
+            }
+            blockMapColors[Block.getId(state)] = (byte) mapColor.id;
+        }
+
+        try {
+            BinaryTableWriter.write(new File("./block_map_colors.bin"), "BMPC", out -> {
+                out.writeInt(blockMapColors.length);
+                out.write(blockMapColors);
+            });
+            System.out.println("Finished block map color writing process!");
+        } catch (IOException e) {
+            System.out.println("Failed to write block_map_colors.bin!");
+            e.printStackTrace();
+        }
     }
 
     public void generateEnchantments() {
@@ -632,11 +1214,8 @@ public class MappingsGenerator {
                 enchantmentMap.put(BuiltInRegistries.ENCHANTMENT.getKey(enchantment).toString(), new EnchantmentEntry(rarity, maxLevel, incompatibleEnchantments, validItems));
             }
 
-            GsonBuilder builder = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping();
             File mappings = new File("mappings/enchantments.json");
-            FileWriter writer = new FileWriter(mappings);
-            builder.create().toJson(enchantmentMap, writer);
-            writer.close();
+            output.write(mappings, enchantmentMap);
             System.out.println("Finished enchantment writing process!");
         } catch (IOException e) {
             e.printStackTrace();
@@ -660,7 +1239,7 @@ public class MappingsGenerator {
         }
 
         List<String> validParticleIds = new ArrayList<>();
-        try (FileSystem fileSystem = FileSystems.newFileSystem(Paths.get("bedrockresourcepack.zip"))) {
+        try (FileSystem fileSystem = openResourcePack()) {
             Path particlesPath = fileSystem.getPath("particles");
             fileSystem.provider().newDirectoryStream(particlesPath, (entry) -> true)
                     .forEach((jsonPath) -> {
@@ -722,12 +1301,24 @@ public class MappingsGenerator {
             newParticles.put(enumName, geyserParticle);
         }
 
+        // Java particle type ID -> interned Cloudburst level event/particle type and Bedrock particle identifier, -1 for none
+        StringTable particleStrings = new StringTable();
+        int[] eventTypes = new int[BuiltInRegistries.PARTICLE_TYPE.size()];
+        int[] bedrockIds = new int[BuiltInRegistries.PARTICLE_TYPE.size()];
+        for (Map.Entry<ResourceKey<ParticleType<?>>, ParticleType<?>> entry : BuiltInRegistries.PARTICLE_TYPE.entrySet()) {
+            int id = BuiltInRegistries.PARTICLE_TYPE.getId(entry.getValue());
+            ParticleEntry geyserParticle = newParticles.get(entry.getKey().location().getPath().toUpperCase(Locale.ROOT));
+            eventTypes[id] = particleStrings.internNullable(geyserParticle.cloudburstLevelEventType);
+            bedrockIds[id] = particleStrings.internNullable(geyserParticle.bedrockId);
+        }
+
         try {
-            GsonBuilder builder = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping();
-            JsonWriter writer = new JsonWriter(new FileWriter(mappings));
-            writer.setIndent("\t"); // Tabs just to keep the diff nice for older mappings
-            builder.create().toJson(newParticles, Map.class, writer);
-            writer.close();
+            output.write(mappings, newParticles, "\t"); // Tabs just to keep the diff nice for older mappings
+            BinaryTableWriter.write(new File("mappings/particle_ids.bin"), "PART", out -> {
+                BinaryTableWriter.writeStringTable(out, particleStrings);
+                BinaryTableWriter.writeIntArray(out, eventTypes);
+                BinaryTableWriter.writeIntArray(out, bedrockIds);
+            });
             System.out.println("Finished particle writing process!");
         } catch (IOException e) {
             e.printStackTrace();
@@ -791,6 +1382,8 @@ public class MappingsGenerator {
         List<String> requiresMayBuild = new ArrayList<>();
 
         for (BlockState state : getAllStates()) {
+            InteractionProbeEvent probe = new InteractionProbeEvent();
+            String outcome;
             try {
                 if (state.getBlock() == Blocks.REDSTONE_WIRE) {
                     continue; // Interactions with Redstone wire depend on the wires around it
@@ -813,6 +1406,7 @@ public class MappingsGenerator {
                     continue;
                 }
 
+                probe.begin();
                 requiresAbilities.set(false);
                 abilities.mayBuild = true;
 
@@ -827,22 +1421,31 @@ public class MappingsGenerator {
                 when(mockClientLevel.getBlockState(new BlockPos(0, 0, 0))).thenReturn(state);
 
                 InteractionResult result = state.use(mockClientLevel, mockPlayer, InteractionHand.MAIN_HAND, blockHitResult);
+                outcome = requiresItem.get() ? "requires_item" : "not_consumed";
                 if (!requiresItem.get()) {
                     if (result.consumesAction() && requiresAbilities.get()) {
                         abilities.mayBuild = false;
                         InteractionResult result2 = state.use(mockClientLevel, mockPlayer, InteractionHand.MAIN_HAND, blockHitResult);
                         if (result != result2) {
                             requiresMayBuild.add(blockStateToString(state));
+                            outcome = "requires_may_build";
                         }
                     } else if (result.consumesAction()) {
                         alwaysConsume.add(blockStateToString(state));
+                        outcome = "always_consume";
                     }
                 }
             } catch (Throwable e) {
                 // Ignore; this means the block has extended behavior we have to implement manually
                 System.out.println("Failed to test interactions for " + blockStateToString(state) + " due to");
                 e.printStackTrace(System.out);
+                outcome = "failed";
+            }
+            if (probe.shouldCommit()) {
+                probe.javaIdentifier = blockStateToString(state);
+                probe.outcome = outcome;
             }
+            probe.commit();
         }
 
         File mappings = new File("mappings/interactions.json");
@@ -851,18 +1454,20 @@ public class MappingsGenerator {
             return;
         }
         try {
-            GsonBuilder builder = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping();
-            JsonWriter writer = new JsonWriter(new FileWriter(mappings));
-            writer.setIndent("\t");
-            builder.create().toJson(new InteractionData(alwaysConsume, requiresMayBuild), InteractionData.class, writer);
-            writer.close();
+            output.write(mappings, new InteractionData(alwaysConsume, requiresMayBuild), "\t");
             System.out.println("Finished interaction writing process!");
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    public JsonObject getRemapBlock(BlockState state, String identifier) {
+    /**
+     * Works out everything about a block state that does not depend on the Bedrock block palette. The result is
+     * completed for a palette by {@link #getRemapBlock(JavaBlockRemap, Map)}.
+     */
+    public JavaBlockRemap getJavaRemapBlock(BlockState state, String identifier) {
+        BlockRemapEvent event = new BlockRemapEvent();
+        event.begin();
         JsonObject object = new JsonObject();
         BlockEntry blockEntry = BLOCK_ENTRIES.get(identifier);
         String trimmedIdentifier = identifier.split("\\[")[0];
@@ -959,31 +1564,8 @@ public class MappingsGenerator {
         object.addProperty("bedrock_identifier", bedrockIdentifier);
 
         object.addProperty("block_hardness", state.getDestroySpeed(null, null));
-        List<List<Double>> collisionBoxes = Lists.newArrayList();
-        try {
-            state.getCollisionShape(null, null).toAabbs().forEach(item -> {
-                List<Double> coordinateList = Lists.newArrayList();
-                // Convert Box class to an array of coordinates
-                // They need to be converted from min/max coordinates to centres and sizes
-                coordinateList.add(item.minX + ((item.maxX - item.minX) / 2));
-                coordinateList.add(item.minY + ((item.maxY - item.minY) / 2));
-                coordinateList.add(item.minZ + ((item.maxZ - item.minZ) / 2));
-
-                coordinateList.add(item.maxX - item.minX);
-                coordinateList.add(item.maxY - item.minY);
-                coordinateList.add(item.maxZ - item.minZ);
-
-                collisionBoxes.add(coordinateList);
-            });
-        } catch (NullPointerException e) {
-            // Fallback to empty collision when the position is needed to calculate it
-        }
-
-        if (!COLLISION_LIST.contains(collisionBoxes)) {
-            COLLISION_LIST.add(collisionBoxes);
-        }
         // This points to the index of the collision in collision.json
-        object.addProperty("collision_index", COLLISION_LIST.lastIndexOf(collisionBoxes));
+        object.addProperty("collision_index", getCollisionIndex(getCollisionBoxes(state)));
 
         PushReaction pushReaction = state.getPistonPushReaction();
         if (pushReaction != PushReaction.NORMAL) {
@@ -1061,31 +1643,8 @@ public class MappingsGenerator {
             }
         }
 
-        JsonElement bedrockStates = blockEntry != null ? blockEntry.getBedrockStates() : null;
-        if (bedrockStates == null) {
-            bedrockStates = new JsonObject();
-        }
-
-        JsonObject statesObject = bedrockStates.getAsJsonObject();
-        if (blockEntry != null && STATES.get(blockEntry.getBedrockIdentifier()) != null) {
-            // Prevent ConcurrentModificationException
-            List<String> toRemove = new ArrayList<>();
-            // Since we now rely on block states being exact after 1.16.100, we need to remove any old states
-            for (Map.Entry<String, JsonElement> entry : statesObject.entrySet()) {
-                List<String> states = STATES.get(blockEntry.getBedrockIdentifier());
-                if (!states.contains(entry.getKey()) &&
-                        !entry.getKey().contains("stone_slab_type")) { // Ignore the stone slab types since we ignore them above
-                    toRemove.add(entry.getKey());
-                }
-            }
-            for (String key : toRemove) {
-                statesObject.remove(key);
-            }
-        } else if (blockEntry != null) {
-            System.out.println("States for " + blockEntry.getBedrockIdentifier() + " not found!");
-        } else {
-            System.out.println("Block entry for " + blockStateToString(state) + " is null?");
-        }
+        // The states set by the state mappers and special cases, which are applied over the states of the block entry
+        JsonObject statesObject = new JsonObject();
         String[] states = StateMapper.getStates(identifier);
         for (String javaState : states) {
             String key = javaState.split("=")[0];
@@ -1105,7 +1664,16 @@ public class MappingsGenerator {
                     }
                 }
                 String value = javaState.split("=")[1];
+                StateMapperEvent mapperEvent = new StateMapperEvent();
+                mapperEvent.begin();
                 Pair<String, ?> bedrockState = stateMapper.translateState(identifier, value);
+                if (mapperEvent.shouldCommit()) {
+                    mapperEvent.mapper = stateMapper.getClass();
+                    mapperEvent.javaIdentifier = identifier;
+                    mapperEvent.javaState = javaState;
+                    mapperEvent.bedrockState = bedrockState.getKey() + "=" + bedrockState.getValue();
+                }
+                mapperEvent.commit();
                 if (bedrockState.getValue() instanceof Number) {
                     statesObject.addProperty(bedrockState.getKey(), StateMapper.asType(bedrockState, Number.class));
                 }
@@ -1180,9 +1748,61 @@ public class MappingsGenerator {
             statesObject.addProperty("update_bit", false);
         }
 
-        List<String> stateKeys = STATES.get(stateIdentifier);
-        if (stateKeys != null) {
-            stateKeys.forEach(key -> {
+        // No more manual pottable because I'm angry I don't care how bad the list looks
+        if (POTTABLE_BLOCK_IDENTIFIERS.contains(trimmedIdentifier)) {
+            object.addProperty("pottable", true);
+        }
+
+        if (event.shouldCommit()) {
+            event.stateId = Block.getId(state);
+            event.javaIdentifier = identifier;
+            event.bedrockIdentifier = bedrockIdentifier;
+        }
+        event.commit();
+        return new JavaBlockRemap(identifier, object, stateIdentifier, blockEntry, statesObject);
+    }
+
+    /**
+     * Completes the mapping of a block state for one Bedrock block palette, by working out its Bedrock states.
+     *
+     * @param remap the palette-independent part of the mapping
+     * @param stateKeys the state keys of every block in the palette, keyed by Bedrock identifier
+     * @return the entry of the block state in blocks.json
+     */
+    public JsonObject getRemapBlock(JavaBlockRemap remap, Map<String, List<String>> stateKeys) {
+        JsonObject object = remap.attributes().deepCopy();
+        BlockEntry blockEntry = remap.blockEntry();
+        String trimmedIdentifier = remap.identifier().split("\\[")[0];
+
+        // Copied, since the same block entry is resolved against every palette
+        JsonElement bedrockStates = blockEntry != null ? blockEntry.getBedrockStates() : null;
+        JsonObject statesObject = bedrockStates != null ? bedrockStates.getAsJsonObject().deepCopy() : new JsonObject();
+        if (blockEntry != null && stateKeys.get(blockEntry.getBedrockIdentifier()) != null) {
+            // Prevent ConcurrentModificationException
+            List<String> toRemove = new ArrayList<>();
+            // Since we now rely on block states being exact after 1.16.100, we need to remove any old states
+            for (Map.Entry<String, JsonElement> entry : statesObject.entrySet()) {
+                List<String> states = stateKeys.get(blockEntry.getBedrockIdentifier());
+                if (!states.contains(entry.getKey()) &&
+                        !entry.getKey().contains("stone_slab_type")) { // Ignore the stone slab types since we ignore them above
+                    toRemove.add(entry.getKey());
+                }
+            }
+            for (String key : toRemove) {
+                statesObject.remove(key);
+            }
+        } else if (blockEntry != null) {
+            System.out.println("States for " + blockEntry.getBedrockIdentifier() + " not found!");
+        } else {
+            System.out.println("Block entry for " + remap.identifier() + " is null?");
+        }
+        for (Map.Entry<String, JsonElement> state : remap.mappedStates().entrySet()) {
+            statesObject.add(state.getKey(), state.getValue().deepCopy());
+        }
+
+        List<String> keys = stateKeys.get(remap.stateIdentifier());
+        if (keys != null) {
+            keys.forEach(key -> {
                 if (trimmedIdentifier.contains("minecraft:shulker_box")) return;
                 if (!statesObject.has(key)) {
                     statesObject.addProperty(key, "MANUALMAP");
@@ -1190,11 +1810,6 @@ public class MappingsGenerator {
             });
         }
 
-        // No more manual pottable because I'm angry I don't care how bad the list looks
-        if (POTTABLE_BLOCK_IDENTIFIERS.contains(trimmedIdentifier)) {
-            object.addProperty("pottable", true);
-        }
-
         if (statesObject.entrySet().size() != 0) {
             if (statesObject.has("wall_block_type") && isSensibleWall(trimmedIdentifier)) {
                 statesObject.getAsJsonObject().remove("wall_block_type");
@@ -1205,6 +1820,43 @@ public class MappingsGenerator {
         return object;
     }
 
+    /**
+     * @return the collision boxes of the block state, as the centre and size of each box
+     */
+    static List<List<Double>> getCollisionBoxes(BlockState state) {
+        List<List<Double>> collisionBoxes = Lists.newArrayList();
+        try {
+            state.getCollisionShape(null, null).toAabbs().forEach(item -> {
+                List<Double> coordinateList = Lists.newArrayList();
+                // Convert Box class to an array of coordinates
+                // They need to be converted from min/max coordinates to centres and sizes
+                coordinateList.add(item.minX + ((item.maxX - item.minX) / 2));
+                coordinateList.add(item.minY + ((item.maxY - item.minY) / 2));
+                coordinateList.add(item.minZ + ((item.maxZ - item.minZ) / 2));
+
+                coordinateList.add(item.maxX - item.minX);
+                coordinateList.add(item.maxY - item.minY);
+                coordinateList.add(item.maxZ - item.minZ);
+
+                collisionBoxes.add(coordinateList);
+            });
+        } catch (NullPointerException e) {
+            // Fallback to empty collision when the position is needed to calculate it
+        }
+
+        return collisionBoxes;
+    }
+
+    /**
+     * @return the index of the collision boxes in {@link #COLLISION_LIST}, adding them if they aren't in it yet
+     */
+    static int getCollisionIndex(List<List<Double>> collisionBoxes) {
+        if (!COLLISION_LIST.contains(collisionBoxes)) {
+            COLLISION_LIST.add(collisionBoxes);
+        }
+        return COLLISION_LIST.lastIndexOf(collisionBoxes);
+    }
+
     public JsonObject getRemapItem(String identifier, Item item, Block block) {
         String trimmedIdentifier = identifier.replace("minecraft:", "");
         JsonObject object = new JsonObject();
@@ -1237,10 +1889,6 @@ public class MappingsGenerator {
         }
         object.addProperty("bedrock_identifier", "minecraft:" + bedrockIdentifier);
 
-        if (!VALID_BEDROCK_ITEMS.contains("minecraft:" + bedrockIdentifier)) {
-            System.out.println(bedrockIdentifier + " not found in Bedrock runtime item states!");
-        }
-
         boolean isBlock = block != Blocks.AIR;
         object.addProperty("bedrock_data", isBlock ? itemEntry.getBedrockData() : 0);
         if (isBlock) {
@@ -1331,7 +1979,7 @@ public class MappingsGenerator {
         return states.stream().sorted(Comparator.comparingInt(Block::getId)).collect(Collectors.toList());
     }
 
-    private String blockStateToString(BlockState blockState) {
+    String blockStateToString(BlockState blockState) {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append(BuiltInRegistries.BLOCK.getKey(blockState.getBlock()));
         if (!blockState.getValues().isEmpty()) {
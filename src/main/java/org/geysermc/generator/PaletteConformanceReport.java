@@ -0,0 +1,100 @@
+package org.geysermc.generator;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.cloudburstmc.nbt.NbtMap;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Collects generated block states that do not exist in the Bedrock block palette, along with the
+ * closest palette entries, so they can be fixed before Geyser runs into them.
+ */
+public class PaletteConformanceReport {
+
+    private static final int CANDIDATE_LIMIT = 3;
+
+    private final BlockPalette palette;
+    private final JsonArray unmatched = new JsonArray();
+
+    public PaletteConformanceReport(BlockPalette palette) {
+        this.palette = palette;
+    }
+
+    /**
+     * Records a block state that has no palette entry.
+     *
+     * @param javaId the Java block state ID
+     * @param javaIdentifier the Java block state string
+     * @param bedrockIdentifier the generated Bedrock identifier
+     * @param bedrockStates the generated Bedrock states, or null if there are none
+     */
+    public void addUnmatched(int javaId, String javaIdentifier, String bedrockIdentifier, JsonObject bedrockStates) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("java_id", javaId);
+        entry.addProperty("java_state", javaIdentifier);
+        entry.addProperty("bedrock_identifier", bedrockIdentifier);
+        if (bedrockStates != null) {
+            entry.add("bedrock_states", bedrockStates.deepCopy());
+        }
+
+        NbtMap states = BlockPalette.toNbt(bedrockStates);
+        String reason;
+        if (!palette.hasIdentifier(bedrockIdentifier)) {
+            reason = "unknown_identifier";
+        } else if (bedrockStates != null && bedrockStates.toString().contains("MANUALMAP")) {
+            reason = "manual_map";
+        } else {
+            reason = "no_matching_states";
+        }
+        entry.addProperty("reason", reason);
+
+        JsonArray candidates = new JsonArray();
+        if (states != null) {
+            for (int runtimeId : palette.findNearest(bedrockIdentifier, states, CANDIDATE_LIMIT)) {
+                JsonObject candidate = new JsonObject();
+                candidate.addProperty("runtime_id", runtimeId);
+                candidate.add("bedrock_states", toJson(palette.getEntries().get(runtimeId).getCompound("states")));
+                JsonArray differences = new JsonArray();
+                palette.getDifferences(runtimeId, states).forEach(differences::add);
+                candidate.add("differences", differences);
+                candidates.add(candidate);
+            }
+        }
+        entry.add("candidates", candidates);
+
+        unmatched.add(entry);
+    }
+
+    public int size() {
+        return unmatched.size();
+    }
+
+    public void write(File file) throws IOException {
+        JsonObject report = new JsonObject();
+        report.addProperty("palette_entries", palette.getEntries().size());
+        report.addProperty("unmatched_states", unmatched.size());
+        report.add("unmatched", unmatched);
+
+        try (Writer writer = new FileWriter(file)) {
+            new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(report, writer);
+        }
+    }
+
+    private static JsonObject toJson(NbtMap states) {
+        JsonObject object = new JsonObject();
+        for (Map.Entry<String, Object> state : states.entrySet()) {
+            if (state.getValue() instanceof Number number) {
+                object.addProperty(state.getKey(), number);
+            } else {
+                object.addProperty(state.getKey(), String.valueOf(state.getValue()));
+            }
+        }
+        return object;
+    }
+}
@@ -0,0 +1,253 @@
+package org.geysermc.generator;
+
+import org.cloudburstmc.nbt.NbtMap;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Writes what changed in the palette-dependent tables from one Bedrock version to the next, so that a consumer that
+ * has loaded one version can move to the next by applying its delta. Every version still gets its full tables too:
+ * the deltas only cover runtime IDs, not for example the block hashes, and a consumer that needs a single version
+ * shouldn't have to apply the deltas of every version before it.
+ *
+ * Palettes are compared with a single merge over both palettes sorted by name and states, so a palette entry
+ * is either kept (possibly at a different runtime ID), added, or removed. When every state of a removed block
+ * name reappears under a single added name, the block was renamed, and its entries are recorded as moved
+ * rather than removed and added again.
+ */
+public final class PaletteDelta {
+
+    private static final byte TYPE_BYTE = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_STRING = 2;
+
+    private PaletteDelta() {
+    }
+
+    /**
+     * Writes the block delta: renamed identifiers, removed entries (by base runtime ID), added entries (with
+     * their runtime ID, name and states), moved entries (base runtime ID to new runtime ID), and finally every
+     * Java state whose Bedrock runtime ID changed. The delta is written to the output directory of the target set.
+     */
+    public static void writeBlocks(PaletteSet baseSet, BlockPalette base, int[] baseRuntimeIds,
+                                   PaletteSet targetSet, BlockPalette target, int[] targetRuntimeIds) throws IOException {
+        List<Entry> baseEntries = sortedEntries(base);
+        List<Entry> targetEntries = sortedEntries(target);
+
+        List<Entry> removed = new ArrayList<>();
+        List<Entry> added = new ArrayList<>();
+        Map<Integer, Integer> moved = new TreeMap<>();
+        int i = 0;
+        int j = 0;
+        while (i < baseEntries.size() || j < targetEntries.size()) {
+            int compare;
+            if (i == baseEntries.size()) {
+                compare = 1;
+            } else if (j == targetEntries.size()) {
+                compare = -1;
+            } else {
+                compare = baseEntries.get(i).fingerprint.compareTo(targetEntries.get(j).fingerprint);
+            }
+
+            if (compare == 0) {
+                if (baseEntries.get(i).runtimeId != targetEntries.get(j).runtimeId) {
+                    moved.put(baseEntries.get(i).runtimeId, targetEntries.get(j).runtimeId);
+                }
+                i++;
+                j++;
+            } else if (compare < 0) {
+                removed.add(baseEntries.get(i++));
+            } else {
+                added.add(targetEntries.get(j++));
+            }
+        }
+
+        Map<String, String> renamed = findRenames(removed, added);
+        if (!renamed.isEmpty()) {
+            Map<String, Integer> addedByStates = new HashMap<>();
+            for (Entry entry : added) {
+                if (renamed.containsValue(entry.name)) {
+                    addedByStates.put(BlockPalette.fingerprint(entry.name, entry.states), entry.runtimeId);
+                }
+            }
+            for (Entry entry : removed) {
+                String newName = renamed.get(entry.name);
+                if (newName != null) {
+                    moved.put(entry.runtimeId, addedByStates.get(BlockPalette.fingerprint(newName, entry.states)));
+                }
+            }
+            removed.removeIf(entry -> renamed.containsKey(entry.name));
+            added.removeIf(entry -> renamed.containsValue(entry.name));
+        }
+
+        BinaryTableWriter.write(targetSet.output("block_delta.bin"), "BDLT", out -> {
+            out.writeUTF(baseSet.version());
+            out.writeInt(base.getEntries().size());
+            out.writeInt(target.getEntries().size());
+
+            out.writeInt(renamed.size());
+            for (Map.Entry<String, String> rename : renamed.entrySet()) {
+                out.writeUTF(rename.getKey());
+                out.writeUTF(rename.getValue());
+            }
+
+            removed.sort(Comparator.comparingInt(entry -> entry.runtimeId));
+            out.writeInt(removed.size());
+            for (Entry entry : removed) {
+                out.writeInt(entry.runtimeId);
+            }
+
+            added.sort(Comparator.comparingInt(entry -> entry.runtimeId));
+            out.writeInt(added.size());
+            for (Entry entry : added) {
+                out.writeInt(entry.runtimeId);
+                out.writeUTF(entry.name);
+                writeStates(out, entry.states);
+            }
+
+            out.writeInt(moved.size());
+            for (Map.Entry<Integer, Integer> move : moved.entrySet()) {
+                out.writeInt(move.getKey());
+                out.writeInt(move.getValue());
+            }
+
+            writeChangedIds(out, baseRuntimeIds, targetRuntimeIds);
+        });
+
+        System.out.println(targetSet.prefix() + "Block palette delta from " + baseSet.version() + ": " + renamed.size() + " renamed, " + removed.size() + " removed, "
+                + added.size() + " added and " + moved.size() + " moved entries");
+    }
+
+    /**
+     * Writes the item delta: removed and added Bedrock item identifiers with their runtime IDs, and every Java item
+     * whose Bedrock runtime ID changed. The delta is written to the output directory of the target set.
+     */
+    public static void writeItems(PaletteSet baseSet, Map<String, Integer> base, int[] baseRuntimeIds,
+                                  PaletteSet targetSet, Map<String, Integer> target, int[] targetRuntimeIds) throws IOException {
+        Map<String, Integer> removed = new LinkedHashMap<>();
+        Map<String, Integer> added = new LinkedHashMap<>();
+        Set<String> identifiers = new TreeSet<>(base.keySet());
+        identifiers.addAll(target.keySet());
+        for (String identifier : identifiers) {
+            if (!target.containsKey(identifier)) {
+                removed.put(identifier, base.get(identifier));
+            } else if (!base.containsKey(identifier)) {
+                added.put(identifier, target.get(identifier));
+            }
+        }
+
+        BinaryTableWriter.write(targetSet.output("item_delta.bin"), "IDLT", out -> {
+            out.writeUTF(baseSet.version());
+            writeIdentifiers(out, removed);
+            writeIdentifiers(out, added);
+            writeChangedIds(out, baseRuntimeIds, targetRuntimeIds);
+        });
+
+        System.out.println(targetSet.prefix() + "Item palette delta from " + baseSet.version() + ": " + removed.size() + " removed and "
+                + added.size() + " added identifiers");
+    }
+
+    private static List<Entry> sortedEntries(BlockPalette palette) {
+        List<Entry> entries = new ArrayList<>(palette.getEntries().size());
+        for (int runtimeId = 0; runtimeId < palette.getEntries().size(); runtimeId++) {
+            NbtMap entry = palette.getEntries().get(runtimeId);
+            String name = entry.getString("name");
+            NbtMap states = entry.getCompound("states");
+            entries.add(new Entry(BlockPalette.fingerprint(name, states), runtimeId, name, states));
+        }
+        entries.sort(Comparator.comparing(entry -> entry.fingerprint));
+        return entries;
+    }
+
+    /**
+     * @return the old name of every block whose removed states exactly match the added states of one new name.
+     * Names are only matched if no other removed or added name has the same states, since for example any two
+     * blocks without states would otherwise look like a rename.
+     */
+    private static Map<String, String> findRenames(List<Entry> removed, List<Entry> added) {
+        Map<Set<String>, String> namesByRemovedStates = uniqueNamesByStates(removed);
+        Map<Set<String>, String> namesByAddedStates = uniqueNamesByStates(added);
+
+        Map<String, String> renamed = new TreeMap<>();
+        namesByRemovedStates.forEach((states, name) -> {
+            String newName = namesByAddedStates.get(states);
+            if (name != null && newName != null) {
+                renamed.put(name, newName);
+            }
+        });
+        return renamed;
+    }
+
+    /**
+     * @return the name for every set of states, or null for a set of states shared by several names
+     */
+    private static Map<Set<String>, String> uniqueNamesByStates(List<Entry> entries) {
+        Map<String, Set<String>> states = new HashMap<>();
+        for (Entry entry : entries) {
+            // Fingerprint the states without the name, so the same states match under a different name
+            states.computeIfAbsent(entry.name, $ -> new TreeSet<>()).add(BlockPalette.fingerprint("", entry.states));
+        }
+
+        Map<Set<String>, List<String>> namesByStates = new HashMap<>();
+        states.forEach((name, nameStates) -> namesByStates.computeIfAbsent(nameStates, $ -> new ArrayList<>()).add(name));
+        Map<Set<String>, String> names = new HashMap<>();
+        namesByStates.forEach((nameStates, stateNames) -> names.put(nameStates, stateNames.size() == 1 ? stateNames.get(0) : null));
+        return names;
+    }
+
+    private static void writeStates(DataOutputStream out, NbtMap states) throws IOException {
+        out.writeInt(states.size());
+        for (Map.Entry<String, Object> state : new TreeMap<>(states).entrySet()) {
+            out.writeUTF(state.getKey());
+            Object value = state.getValue();
+            if (value instanceof Byte byteValue) {
+                out.writeByte(TYPE_BYTE);
+                out.writeByte(byteValue);
+            } else if (value instanceof Integer intValue) {
+                out.writeByte(TYPE_INT);
+                out.writeInt(intValue);
+            } else {
+                out.writeByte(TYPE_STRING);
+                out.writeUTF(value.toString());
+            }
+        }
+    }
+
+    private static void writeIdentifiers(DataOutputStream out, Map<String, Integer> identifiers) throws IOException {
+        out.writeInt(identifiers.size());
+        for (Map.Entry<String, Integer> identifier : identifiers.entrySet()) {
+            out.writeUTF(identifier.getKey());
+            out.writeInt(identifier.getValue());
+        }
+    }
+
+    /**
+     * Writes the amount of changed IDs, followed by the index and new value of each.
+     */
+    private static void writeChangedIds(DataOutputStream out, int[] base, int[] target) throws IOException {
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < target.length; i++) {
+            if (i >= base.length || base[i] != target[i]) {
+                changed.add(i);
+            }
+        }
+        out.writeInt(changed.size());
+        for (int index : changed) {
+            out.writeInt(index);
+            out.writeInt(target[index]);
+        }
+    }
+
+    private record Entry(String fingerprint, int runtimeId, String name, NbtMap states) {
+    }
+}
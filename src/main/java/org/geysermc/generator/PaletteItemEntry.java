@@ -13,5 +13,5 @@ public class PaletteItemEntry {
     private String identifier;
 
     @SerializedName("id")
-    private int legacy_id;
+    private int runtimeId;
 }
\ No newline at end of file
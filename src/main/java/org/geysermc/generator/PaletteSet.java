@@ -0,0 +1,107 @@
+package org.geysermc.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The Bedrock palettes of one Bedrock version, and where the mappings that depend on them are written.
+ *
+ * Each directory in palettes/ that contains a blockpalette.nbt is one Bedrock version, named after the directory,
+ * and the tables that depend on its palettes are written to a directory of the same name in mappings/. A version
+ * without its own runtime_item_states.json uses the one in palettes/. If there are no version directories, the
+ * palettes in palettes/ are used and everything is written straight to mappings/, as it always has been.
+ *
+ * Either way there is only one blocks.json and one items.json, in mappings/, mapped against the {@link #latest(List)}
+ * palettes. They are also what the next run starts from, so fixes made to them by hand apply to every version.
+ *
+ * @param version the Bedrock version, or null for the palettes in palettes/ itself
+ */
+public record PaletteSet(String version, File blockPalette, File itemPalette, File outputDirectory) {
+
+    private static final File PALETTES = new File("palettes");
+    private static final File MAPPINGS = new File("mappings");
+    private static final String BLOCK_PALETTE = "blockpalette.nbt";
+    private static final String ITEM_PALETTE = "runtime_item_states.json";
+
+    /**
+     * @return every palette set, sorted by version
+     */
+    public static List<PaletteSet> find() {
+        List<PaletteSet> sets = new ArrayList<>();
+        File[] directories = PALETTES.listFiles(file -> file.isDirectory() && new File(file, BLOCK_PALETTE).exists());
+        if (directories != null) {
+            Arrays.sort(directories, Comparator.comparing(File::getName, PaletteSet::compareVersions));
+            for (File directory : directories) {
+                File itemPalette = new File(directory, ITEM_PALETTE);
+                if (!itemPalette.exists()) {
+                    itemPalette = new File(PALETTES, ITEM_PALETTE);
+                }
+                sets.add(new PaletteSet(directory.getName(), new File(directory, BLOCK_PALETTE), itemPalette, new File(MAPPINGS, directory.getName())));
+            }
+        }
+
+        if (sets.isEmpty()) {
+            sets.add(new PaletteSet(null, new File(PALETTES, BLOCK_PALETTE), new File(PALETTES, ITEM_PALETTE), MAPPINGS));
+        }
+        return sets;
+    }
+
+    /**
+     * @param sets the palette sets, as returned by {@link #find()}
+     * @return the newest palette set, which blocks.json and items.json are mapped against
+     */
+    public static PaletteSet latest(List<PaletteSet> sets) {
+        return sets.get(sets.size() - 1);
+    }
+
+    /**
+     * Compares version names part by part, so that 1.20.50 comes before 1.20.100. Parts that aren't numbers are
+     * compared as text.
+     */
+    static int compareVersions(String first, String second) {
+        String[] firstParts = first.split("\\.");
+        String[] secondParts = second.split("\\.");
+        for (int i = 0; i < Math.min(firstParts.length, secondParts.length); i++) {
+            int compared = isNumber(firstParts[i]) && isNumber(secondParts[i])
+                    ? Integer.compare(Integer.parseInt(firstParts[i]), Integer.parseInt(secondParts[i]))
+                    : firstParts[i].compareTo(secondParts[i]);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(firstParts.length, secondParts.length);
+    }
+
+    private static boolean isNumber(String part) {
+        return !part.isEmpty() && part.length() < 10 && part.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+
+    /**
+     * @return the file with this name in the output directory, creating the directory if needed
+     */
+    public File output(String name) {
+        outputDirectory.mkdirs();
+        return new File(outputDirectory, name);
+    }
+
+    /**
+     * @return the report file with this name, which is suffixed with the version for versioned palettes
+     */
+    public File report(String name) {
+        if (version == null) {
+            return new File(".", name);
+        }
+        int extension = name.lastIndexOf('.');
+        return new File(".", name.substring(0, extension) + "_" + version + name.substring(extension));
+    }
+
+    /**
+     * @return the prefix for console messages about this palette set
+     */
+    public String prefix() {
+        return version == null ? "" : "[" + version + "] ";
+    }
+}
@@ -0,0 +1,228 @@
+package org.geysermc.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A minimal perfect hash from a fixed set of strings to their indexes, such as the Java block state strings
+ * to their state IDs. It is built with hash and displace:
+ * keys are first split into buckets, then each bucket is given a displacement that places all of its keys
+ * into free slots. Every key therefore takes exactly one hash, one displacement read and one slot read.
+ *
+ * Buckets with a single key are placed directly into a free slot, which is stored as a negative displacement
+ * of -(slot + 1). Since the hash only maps the known keys, lookups compare the key in the slot to reject
+ * unknown strings.
+ */
+public final class PerfectHash {
+
+    /**
+     * The average amount of keys per bucket. Larger buckets make the displacement table smaller but take
+     * longer to place.
+     */
+    private static final int AVERAGE_BUCKET_SIZE = 4;
+    private static final int MAX_DISPLACEMENT = 1 << 20;
+    static final long FNV1_64_INIT = 0xcbf29ce484222325L;
+    static final long FNV1_PRIME_64 = 0x100000001b3L;
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final int[] displacements;
+    private final String[] keys;
+    private final int[] values;
+
+    private PerfectHash(long seed, int[] displacements, String[] keys, int[] values) {
+        this.seed = seed;
+        this.displacements = displacements;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Builds the hash, mapping each key to its index in the list.
+     *
+     * @param keys the strings to hash, ordered by the index they should map to
+     * @return the hash
+     */
+    public static PerfectHash build(List<String> keys) {
+        if (new HashSet<>(keys).size() != keys.size()) {
+            throw new IllegalArgumentException("Perfect hash keys must be unique");
+        }
+
+        for (long seed = 0; seed < 100; seed++) {
+            PerfectHash hash = tryBuild(keys, seed);
+            if (hash != null) {
+                return hash;
+            }
+        }
+        throw new IllegalStateException("Unable to build a perfect hash for " + keys.size() + " keys");
+    }
+
+    /**
+     * @return the index of the key, or -1 if it is not one of the keys the hash was built from
+     */
+    public int get(String key) {
+        if (keys.length == 0) {
+            return -1;
+        }
+        long hash = hash(key, seed);
+        int slot = slot(hash, displacements[bucket(hash, displacements.length)], keys.length);
+        return keys[slot].equals(key) ? values[slot] : -1;
+    }
+
+    /**
+     * Checks that every key maps to its own index.
+     *
+     * @param keys the keys the hash was built from
+     * @throws IllegalStateException if a key does not
+     */
+    public void verify(List<String> keys) {
+        for (int i = 0; i < keys.size(); i++) {
+            if (get(keys.get(i)) != i) {
+                throw new IllegalStateException("Perfect hash maps " + keys.get(i) + " to " + get(keys.get(i)) + " instead of " + i);
+            }
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int[] getDisplacements() {
+        return displacements;
+    }
+
+    /**
+     * Writes the seed, the key count, the displacement of every bucket and the index in every slot.
+     * The strings themselves are not written, so readers verify a lookup by comparing the key against
+     * the string at the index it resolved to.
+     */
+    public void write(File file) throws IOException {
+        BinaryTableWriter.write(file, "MPHF", out -> {
+            out.writeLong(seed);
+            out.writeInt(keys.length);
+            BinaryTableWriter.writeIntArray(out, displacements);
+            BinaryTableWriter.writeIntArray(out, values);
+        });
+    }
+
+    private static PerfectHash tryBuild(List<String> keys, long seed) {
+        int size = keys.size();
+        int bucketCount = Math.max(1, (size + AVERAGE_BUCKET_SIZE - 1) / AVERAGE_BUCKET_SIZE);
+
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        long[] hashes = new long[size];
+        Set<Long> seenHashes = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            hashes[i] = hash(keys.get(i), seed);
+            if (!seenHashes.add(hashes[i])) {
+                // Two keys with the same hash can never be separated
+                return null;
+            }
+            buckets.get(bucket(hashes[i], bucketCount)).add(i);
+        }
+
+        // Place the largest buckets first, while there are still plenty of free slots
+        List<Integer> order = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        int[] displacements = new int[bucketCount];
+        String[] slotKeys = new String[size];
+        int[] slotValues = new int[size];
+        boolean[] taken = new boolean[size];
+        int nextFree = 0;
+        for (int bucket : order) {
+            List<Integer> members = buckets.get(bucket);
+            if (members.isEmpty()) {
+                break;
+            }
+
+            if (members.size() == 1) {
+                while (taken[nextFree]) {
+                    nextFree++;
+                }
+                displacements[bucket] = -(nextFree + 1);
+                place(members.get(0), nextFree, keys, slotKeys, slotValues, taken);
+                continue;
+            }
+
+            int[] slots = new int[members.size()];
+            int displacement = findDisplacement(members, hashes, taken, slots);
+            if (displacement == -1) {
+                return null;
+            }
+            displacements[bucket] = displacement;
+            for (int i = 0; i < slots.length; i++) {
+                place(members.get(i), slots[i], keys, slotKeys, slotValues, taken);
+            }
+        }
+        return new PerfectHash(seed, displacements, slotKeys, slotValues);
+    }
+
+    private static int findDisplacement(List<Integer> members, long[] hashes, boolean[] taken, int[] slots) {
+        displacementLoop:
+        for (int displacement = 0; displacement < MAX_DISPLACEMENT; displacement++) {
+            for (int i = 0; i < members.size(); i++) {
+                int slot = slot(hashes[members.get(i)], displacement, taken.length);
+                if (taken[slot]) {
+                    continue displacementLoop;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (slots[j] == slot) {
+                        continue displacementLoop;
+                    }
+                }
+                slots[i] = slot;
+            }
+            return displacement;
+        }
+        return -1;
+    }
+
+    private static void place(int index, int slot, List<String> keys, String[] slotKeys, int[] slotValues, boolean[] taken) {
+        slotKeys[slot] = keys.get(index);
+        slotValues[slot] = index;
+        taken[slot] = true;
+    }
+
+    private static int bucket(long hash, int bucketCount) {
+        return (int) ((hash >>> 1) % bucketCount);
+    }
+
+    private static int slot(long hash, int displacement, int size) {
+        if (displacement < 0) {
+            return -displacement - 1;
+        }
+        return (int) ((mix(hash + (displacement + 1) * GOLDEN_GAMMA) >>> 1) % size);
+    }
+
+    /**
+     * The 64-bit FNV-1a hash of the UTF-16 code units of the key, mixed with the seed.
+     */
+    static long hash(String key, long seed) {
+        long hash = FNV1_64_INIT ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV1_PRIME_64;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
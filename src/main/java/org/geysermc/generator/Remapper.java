@@ -0,0 +1,143 @@
+package org.geysermc.generator;
+
+import com.google.gson.JsonObject;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps single block states and items on demand, for tools that only need some of the mappings rather than a
+ * full generator run. Minecraft must already be bootstrapped, see {@link Util#initialize()}.
+ *
+ * The inputs (the state mappers, the existing mappings and the newest Bedrock block palette) are loaded on the
+ * first query. Results are cached by block state ID or item ID, keeping the most recently used ones up to the
+ * cache size. Returned objects are shared with the cache and must not be modified.
+ *
+ * Collision indexes point into {@link MappingsGenerator#COLLISION_LIST}, which is filled in the order states are
+ * mapped, so they only match collision.json when every state is mapped in order, as a full run does.
+ */
+public class Remapper {
+
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private final MappingsGenerator generator;
+    private final Map<Integer, JsonObject> blocks;
+    private final Map<Integer, JsonObject> items;
+    private Map<String, List<String>> stateKeys;
+
+    Remapper(MappingsGenerator generator, int cacheSize) {
+        this.generator = generator;
+        this.blocks = createCache(cacheSize);
+        this.items = createCache(cacheSize);
+    }
+
+    public static Remapper create() {
+        return create(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize the maximum amount of block states, and of items, to keep the mappings of
+     */
+    public static Remapper create(int cacheSize) {
+        return new Remapper(new MappingsGenerator(), cacheSize);
+    }
+
+    /**
+     * @return the entry of the block state in blocks.json, for the newest Bedrock block palette
+     */
+    public JsonObject remap(BlockState state) {
+        JsonObject cached = blocks.get(Block.getId(state));
+        if (cached != null) {
+            return cached;
+        }
+        JsonObject remapped = generator.getRemapBlock(remapJava(state), getStateKeys());
+        blocks.put(Block.getId(state), remapped);
+        return remapped;
+    }
+
+    /**
+     * @return the part of the block state's mapping that is the same for every Bedrock block palette. This is not cached.
+     */
+    public JavaBlockRemap remapJava(BlockState state) {
+        loadInputs(true);
+        return generator.getJavaRemapBlock(state, generator.blockStateToString(state));
+    }
+
+    /**
+     * @return the entry of the item in items.json
+     */
+    public JsonObject remap(Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        JsonObject cached = items.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        loadInputs(false);
+        JsonObject remapped = generator.getRemapItem(BuiltInRegistries.ITEM.getKey(item).toString(), item, Block.byItem(item));
+        items.put(id, remapped);
+        return remapped;
+    }
+
+    /**
+     * @return the mapping of every block state, in the order given
+     */
+    public Map<BlockState, JsonObject> remapBlocks(Collection<BlockState> states) {
+        Map<BlockState, JsonObject> remapped = new LinkedHashMap<>();
+        for (BlockState state : states) {
+            remapped.put(state, remap(state));
+        }
+        return remapped;
+    }
+
+    /**
+     * @return the mapping of every item, in the order given
+     */
+    public Map<Item, JsonObject> remapItems(Collection<Item> items) {
+        Map<Item, JsonObject> remapped = new LinkedHashMap<>();
+        for (Item item : items) {
+            remapped.put(item, remap(item));
+        }
+        return remapped;
+    }
+
+    private Map<String, List<String>> getStateKeys() {
+        if (stateKeys == null) {
+            try {
+                stateKeys = MappingsGenerator.getStateKeys(BlockPalette.load(PaletteSet.latest(PaletteSet.find()).blockPalette()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to load the block palette", e);
+            }
+        }
+        return stateKeys;
+    }
+
+    private void loadInputs(boolean blocks) {
+        try {
+            if (blocks) {
+                generator.loadBlockInputs();
+            } else {
+                generator.loadItemInputs();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load the existing mappings", e);
+        }
+    }
+
+    private static <V> Map<Integer, V> createCache(int size) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > size;
+            }
+        });
+    }
+}
@@ -1,9 +1,25 @@
 package org.geysermc.generator;
 
 import net.minecraft.SharedConstants;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.Bootstrap;
+import net.minecraft.server.packs.PackType;
+import net.minecraft.server.packs.repository.ServerPacksSource;
+import net.minecraft.server.packs.resources.CloseableResourceManager;
+import net.minecraft.server.packs.resources.MultiPackResourceManager;
+import net.minecraft.tags.TagKey;
+import net.minecraft.tags.TagLoader;
+import net.minecraft.tags.TagManager;
+import net.minecraft.world.level.block.Block;
 
 import java.io.PrintStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class Util {
 
@@ -17,4 +33,23 @@ public class Util {
         System.setErr(err);
         System.setOut(out);
     }
+
+    /**
+     * Binds the block tags from the vanilla data pack, which are empty after bootstrapping. Tools use
+     * these to decide which blocks they are effective against. Undo with {@link #resetBlockTags()}.
+     */
+    public static void bindBlockTags() {
+        try (CloseableResourceManager resourceManager = new MultiPackResourceManager(PackType.SERVER_DATA, Collections.singletonList(ServerPacksSource.createVanillaPackSource()))) {
+            TagLoader<Holder<Block>> loader = new TagLoader<>(location -> BuiltInRegistries.BLOCK.getHolder(ResourceKey.create(Registries.BLOCK, location)),
+                    TagManager.getTagDir(Registries.BLOCK));
+
+            Map<TagKey<Block>, List<Holder<Block>>> tags = new HashMap<>();
+            loader.loadAndBuild(resourceManager).forEach((location, blocks) -> tags.put(TagKey.create(Registries.BLOCK, location), List.copyOf(blocks)));
+            BuiltInRegistries.BLOCK.bindTags(tags);
+        }
+    }
+
+    public static void resetBlockTags() {
+        BuiltInRegistries.BLOCK.resetTags();
+    }
 }
@@ -0,0 +1,29 @@
+package org.geysermc.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.geysermc.generator.BlockRemap")
+@Label("Block Remap")
+@Description("Mapping one block state. The Java part runs the state mappers once per state, the Bedrock part runs once per palette.")
+@Category("Mappings Generator")
+@StackTrace(false)
+public class BlockRemapEvent extends Event {
+
+    @Label("State ID")
+    public int stateId;
+
+    @Label("Java Identifier")
+    public String javaIdentifier;
+
+    @Label("Bedrock Identifier")
+    public String bedrockIdentifier;
+
+    @Label("Palette")
+    @Description("The Bedrock version of the palette, or null for the Java part")
+    public String palette;
+}
@@ -0,0 +1,23 @@
+package org.geysermc.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.geysermc.generator.InteractionProbe")
+@Label("Interaction Probe")
+@Description("Using one block state with a mocked player to see whether the interaction is consumed")
+@Category("Mappings Generator")
+@StackTrace(false)
+public class InteractionProbeEvent extends Event {
+
+    @Label("Java Identifier")
+    public String javaIdentifier;
+
+    @Label("Outcome")
+    @Description("always_consume, requires_may_build, requires_item, not_consumed or failed")
+    public String outcome;
+}
@@ -0,0 +1,21 @@
+package org.geysermc.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.geysermc.generator.Phase")
+@Label("Generator Phase")
+@Description("One generator phase, such as blocks or sounds")
+@Category("Mappings Generator")
+public class PhaseEvent extends Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Filter")
+    @Description("The pattern the phase was limited to, if any")
+    public String filter;
+}
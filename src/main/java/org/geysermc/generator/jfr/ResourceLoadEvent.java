@@ -0,0 +1,20 @@
+package org.geysermc.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.geysermc.generator.ResourceLoad")
+@Label("Resource Load")
+@Category("Mappings Generator")
+public class ResourceLoadEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+}
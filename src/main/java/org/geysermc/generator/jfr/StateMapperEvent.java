@@ -0,0 +1,26 @@
+package org.geysermc.generator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.geysermc.generator.StateMapper")
+@Label("State Mapper")
+@Category("Mappings Generator")
+@StackTrace(false)
+public class StateMapperEvent extends Event {
+
+    @Label("Mapper")
+    public Class<?> mapper;
+
+    @Label("Java Identifier")
+    public String javaIdentifier;
+
+    @Label("Java State")
+    public String javaState;
+
+    @Label("Bedrock State")
+    public String bedrockState;
+}
@@ -0,0 +1,152 @@
+package org.geysermc.generator.output;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A compact binary form of the JSON mappings.
+ *
+ * The file starts with the magic "GMAP" and a format version int. Then comes the string table: a
+ * VarInt count followed by each string as a VarInt byte length and its UTF-8 bytes. Every object key
+ * and string value in the file is stored once in this table and referred to by its VarInt index.
+ * After the string table comes the root value. Each value starts with a type byte:
+ * <ul>
+ *     <li>0: null</li>
+ *     <li>1: false, 2: true</li>
+ *     <li>3: an integer, as a zigzag encoded VarLong</li>
+ *     <li>4: a float, 5: a double</li>
+ *     <li>6: a string, as its string table index</li>
+ *     <li>7: an array, as a VarInt length followed by its values</li>
+ *     <li>8: an object, as a VarInt length followed by each key's string table index and its value</li>
+ * </ul>
+ */
+@OutputEncoder(value = "binary", extension = ".bin")
+public class BinaryEncoder implements MappingsEncoder {
+    public static final String MAGIC = "GMAP";
+    public static final int FORMAT_VERSION = 1;
+
+    public static final byte TYPE_NULL = 0;
+    public static final byte TYPE_FALSE = 1;
+    public static final byte TYPE_TRUE = 2;
+    public static final byte TYPE_INTEGER = 3;
+    public static final byte TYPE_FLOAT = 4;
+    public static final byte TYPE_DOUBLE = 5;
+    public static final byte TYPE_STRING = 6;
+    public static final byte TYPE_ARRAY = 7;
+    public static final byte TYPE_OBJECT = 8;
+
+    @Override
+    public void encode(JsonElement element, String indent, OutputStream stream) throws IOException {
+        StringTable strings = new StringTable();
+        collectStrings(element, strings);
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC.getBytes(StandardCharsets.US_ASCII));
+        out.writeInt(FORMAT_VERSION);
+
+        writeVarInt(out, strings.size());
+        for (String string : strings.getStrings()) {
+            writeString(out, string);
+        }
+
+        writeValue(out, element, strings);
+        out.flush();
+    }
+
+    private static void collectStrings(JsonElement element, StringTable strings) {
+        if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                strings.intern(entry.getKey());
+                collectStrings(entry.getValue(), strings);
+            }
+        } else if (element.isJsonArray()) {
+            for (JsonElement child : element.getAsJsonArray()) {
+                collectStrings(child, strings);
+            }
+        } else if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+            strings.intern(element.getAsString());
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, JsonElement element, StringTable strings) throws IOException {
+        if (element.isJsonNull()) {
+            out.writeByte(TYPE_NULL);
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            out.writeByte(TYPE_OBJECT);
+            writeVarInt(out, object.size());
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                writeVarInt(out, strings.intern(entry.getKey()));
+                writeValue(out, entry.getValue(), strings);
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            out.writeByte(TYPE_ARRAY);
+            writeVarInt(out, array.size());
+            for (JsonElement child : array) {
+                writeValue(out, child, strings);
+            }
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.writeByte(primitive.getAsBoolean() ? TYPE_TRUE : TYPE_FALSE);
+            } else if (primitive.isString()) {
+                out.writeByte(TYPE_STRING);
+                writeVarInt(out, strings.intern(primitive.getAsString()));
+            } else {
+                writeNumber(out, primitive.getAsNumber());
+            }
+        }
+    }
+
+    private static void writeNumber(DataOutputStream out, Number number) throws IOException {
+        boolean integral;
+        if (number instanceof Float || number instanceof Double) {
+            integral = false;
+        } else if (number instanceof Byte || number instanceof Short || number instanceof Integer || number instanceof Long) {
+            integral = true;
+        } else {
+            // Numbers read back from existing mappings files keep their original text
+            String text = number.toString();
+            integral = text.indexOf('.') == -1 && text.indexOf('e') == -1 && text.indexOf('E') == -1;
+        }
+
+        if (integral) {
+            out.writeByte(TYPE_INTEGER);
+            long value = number.longValue();
+            writeVarLong(out, (value << 1) ^ (value >> 63));
+        } else if (number instanceof Float || (double) number.floatValue() == number.doubleValue()) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat(number.floatValue());
+        } else {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(number.doubleValue());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    public static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    public static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
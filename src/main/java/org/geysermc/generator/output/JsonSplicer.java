@@ -0,0 +1,164 @@
+package org.geysermc.generator.output;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Replaces top level entries in the text of a JSON object without touching anything else in it.
+ *
+ * The text is scanned once to index where the value of every top level key starts and ends, without building the
+ * values themselves. Replaced values are then spliced in at those positions, so every other entry stays exactly as
+ * it was written, and keys that aren't in the object yet are added after the last entry.
+ */
+public class JsonSplicer {
+
+    private final String json;
+    private final Map<String, int[]> values = new LinkedHashMap<>();
+    private int lastValueEnd = -1;
+    private int closingBrace;
+
+    private JsonSplicer(String json) {
+        this.json = json;
+    }
+
+    /**
+     * @param json the text of a JSON object
+     * @throws IllegalArgumentException if the text isn't a JSON object
+     */
+    public static JsonSplicer index(String json) {
+        JsonSplicer splicer = new JsonSplicer(json);
+        splicer.scan();
+        return splicer;
+    }
+
+    /**
+     * @param entries the entries to replace or add
+     * @param encoder encodes a value as it should appear after its key
+     * @param indent the indent of the top level keys, used for added keys
+     * @return the text with the entries replaced
+     */
+    public String splice(JsonObject entries, Function<JsonElement, String> encoder, String indent) {
+        List<Map.Entry<int[], String>> replacements = new ArrayList<>();
+        StringBuilder added = new StringBuilder();
+        for (Map.Entry<String, JsonElement> entry : entries.entrySet()) {
+            int[] range = values.get(entry.getKey());
+            String value = encoder.apply(entry.getValue());
+            if (range != null) {
+                replacements.add(Map.entry(range, value));
+            } else {
+                boolean first = lastValueEnd == -1 && added.isEmpty();
+                added.append(first ? "\n" : ",\n").append(indent).append(quote(entry.getKey())).append(": ").append(value);
+            }
+        }
+        replacements.sort(Comparator.comparingInt(replacement -> replacement.getKey()[0]));
+
+        StringBuilder result = new StringBuilder(json.length());
+        int position = 0;
+        for (Map.Entry<int[], String> replacement : replacements) {
+            result.append(json, position, replacement.getKey()[0]).append(replacement.getValue());
+            position = replacement.getKey()[1];
+        }
+        if (added.isEmpty()) {
+            return result.append(json, position, json.length()).toString();
+        }
+
+        if (lastValueEnd == -1) {
+            // An empty object, so there's nothing to keep between the braces
+            result.append(json, position, closingBrace).append(added).append('\n');
+        } else {
+            result.append(json, position, lastValueEnd).append(added).append(json, lastValueEnd, closingBrace);
+        }
+        return result.append(json, closingBrace, json.length()).toString();
+    }
+
+    private void scan() {
+        int position = skipWhitespace(0);
+        expect(position, '{');
+        position = skipWhitespace(position + 1);
+        if (json.charAt(position) != '}') {
+            while (true) {
+                int keyEnd = skipString(position);
+                String key = JsonParser.parseString(json.substring(position, keyEnd)).getAsString();
+                position = skipWhitespace(keyEnd);
+                expect(position, ':');
+                int valueStart = skipWhitespace(position + 1);
+                int valueEnd = skipValue(valueStart);
+                values.put(key, new int[]{valueStart, valueEnd});
+                lastValueEnd = valueEnd;
+
+                position = skipWhitespace(valueEnd);
+                if (json.charAt(position) == '}') {
+                    break;
+                }
+                expect(position, ',');
+                position = skipWhitespace(position + 1);
+            }
+        }
+        closingBrace = position;
+    }
+
+    private int skipValue(int position) {
+        char c = json.charAt(position);
+        if (c == '"') {
+            return skipString(position);
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            while (true) {
+                c = json.charAt(position);
+                if (c == '"') {
+                    position = skipString(position);
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    if (--depth == 0) {
+                        return position + 1;
+                    }
+                }
+                position++;
+            }
+        }
+        // A number, boolean or null
+        while (position < json.length() && ",}] \t\r\n".indexOf(json.charAt(position)) == -1) {
+            position++;
+        }
+        return position;
+    }
+
+    private int skipString(int position) {
+        expect(position, '"');
+        position++;
+        while (json.charAt(position) != '"') {
+            position += json.charAt(position) == '\\' ? 2 : 1;
+        }
+        return position + 1;
+    }
+
+    private int skipWhitespace(int position) {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private void expect(int position, char expected) {
+        if (position >= json.length() || json.charAt(position) != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " at position " + position);
+        }
+    }
+
+    private static String quote(String key) {
+        return new JsonPrimitive(key).toString();
+    }
+}
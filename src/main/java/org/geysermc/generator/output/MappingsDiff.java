@@ -0,0 +1,209 @@
+package org.geysermc.generator.output;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The structural difference between the previous and the new version of a mappings file.
+ *
+ * The previous version is streamed from its file one top level entry at a time, and each entry is compared to the
+ * new entry with the same key as soon as it is read, so only that entry, the keys seen so far and the entries that
+ * changed are held besides the new mappings. Entries that differ are compared field by field, so a changed block
+ * state lists only the fields that changed, and the changes are reported in sorted key order. Alongside the change
+ * report, the difference is also available as a JSON Patch (RFC 6902) that turns the previous file into the new one.
+ */
+public class MappingsDiff {
+
+    private final List<String> added = new ArrayList<>();
+    private final List<String> removed = new ArrayList<>();
+    private final JsonObject changed = new JsonObject();
+    private final JsonArray patch = new JsonArray();
+
+    private MappingsDiff() {
+    }
+
+    /**
+     * @param previous a reader positioned at the start of the previous version
+     * @param current the new version
+     */
+    public static MappingsDiff compare(JsonReader previous, JsonElement current) throws IOException {
+        MappingsDiff diff = new MappingsDiff();
+        JsonToken token = previous.peek();
+        if (token == JsonToken.BEGIN_OBJECT && current.isJsonObject()) {
+            diff.compareObjects(previous, current.getAsJsonObject());
+        } else if (token == JsonToken.BEGIN_ARRAY && current.isJsonArray()) {
+            diff.compareArrays(previous, current.getAsJsonArray());
+        } else {
+            JsonElement previousElement = JsonParser.parseReader(previous);
+            if (!previousElement.equals(current)) {
+                diff.changed.add("", change(previousElement, current));
+                diff.patch.add(operation("replace", "", current));
+            }
+        }
+        return diff;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.size() == 0;
+    }
+
+    /**
+     * @return the added and removed keys, and the changed fields of every changed key with their previous and new values
+     */
+    public JsonObject getReport() {
+        JsonObject report = new JsonObject();
+        JsonArray addedArray = new JsonArray();
+        added.forEach(addedArray::add);
+        JsonArray removedArray = new JsonArray();
+        removed.forEach(removedArray::add);
+        report.add("added", addedArray);
+        report.add("removed", removedArray);
+        report.add("changed", changed);
+        return report;
+    }
+
+    public JsonArray getPatch() {
+        return patch;
+    }
+
+    public String getSummary() {
+        return added.size() + " added, " + removed.size() + " removed, " + changed.size() + " changed";
+    }
+
+    private void compareObjects(JsonReader previous, JsonObject current) throws IOException {
+        // The previous value of every removed or changed key, which are the only previous entries kept
+        Map<String, JsonElement> differing = new TreeMap<>();
+        Set<String> seen = new HashSet<>();
+        previous.beginObject();
+        while (previous.hasNext()) {
+            String key = previous.nextName();
+            JsonElement previousValue = JsonParser.parseReader(previous);
+            seen.add(key);
+            if (!previousValue.equals(current.get(key))) {
+                differing.put(key, previousValue);
+            }
+        }
+        previous.endObject();
+
+        Set<String> keys = new TreeSet<>(differing.keySet());
+        for (String key : current.keySet()) {
+            if (!seen.contains(key)) {
+                keys.add(key);
+            }
+        }
+        for (String key : keys) {
+            JsonElement previousValue = differing.get(key);
+            if (previousValue == null) {
+                added.add(key);
+                patch.add(operation("add", pointer("", key), current.get(key)));
+            } else if (!current.has(key)) {
+                removed.add(key);
+                patch.add(operation("remove", pointer("", key), null));
+            } else {
+                compareEntry(key, previousValue, current.get(key));
+            }
+        }
+    }
+
+    private void compareArrays(JsonReader previous, JsonArray current) throws IOException {
+        int size = 0;
+        previous.beginArray();
+        while (previous.hasNext()) {
+            JsonElement previousValue = JsonParser.parseReader(previous);
+            if (size < current.size()) {
+                compareEntry(Integer.toString(size), previousValue, current.get(size));
+            }
+            size++;
+        }
+        previous.endArray();
+
+        // Remove from the end, so the indexes of the remaining elements don't shift
+        for (int i = size - 1; i >= current.size(); i--) {
+            removed.add(Integer.toString(i));
+            patch.add(operation("remove", "/" + i, null));
+        }
+        for (int i = size; i < current.size(); i++) {
+            added.add(Integer.toString(i));
+            patch.add(operation("add", "/-", current.get(i)));
+        }
+    }
+
+    private void compareEntry(String key, JsonElement previous, JsonElement current) {
+        if (previous.equals(current)) {
+            return;
+        }
+        JsonObject fields = new JsonObject();
+        compareFields(pointer("", key), "", previous, current, fields);
+        changed.add(key, fields);
+    }
+
+    private void compareFields(String path, String field, JsonElement previous, JsonElement current, JsonObject fields) {
+        if (previous != null && current != null && previous.isJsonObject() && current.isJsonObject()) {
+            JsonObject previousObject = previous.getAsJsonObject();
+            JsonObject currentObject = current.getAsJsonObject();
+            List<String> keys = new ArrayList<>(previousObject.keySet());
+            for (String key : currentObject.keySet()) {
+                if (!previousObject.has(key)) {
+                    keys.add(key);
+                }
+            }
+            Collections.sort(keys);
+            for (String key : keys) {
+                JsonElement previousValue = previousObject.get(key);
+                JsonElement currentValue = currentObject.get(key);
+                if (!Objects.equals(previousValue, currentValue)) {
+                    compareFields(pointer(path, key), field.isEmpty() ? key : field + "." + key, previousValue, currentValue, fields);
+                }
+            }
+            return;
+        }
+
+        fields.add(field, change(previous, current));
+        if (previous == null) {
+            patch.add(operation("add", path, current));
+        } else if (current == null) {
+            patch.add(operation("remove", path, null));
+        } else {
+            patch.add(operation("replace", path, current));
+        }
+    }
+
+    private static JsonObject change(JsonElement previous, JsonElement current) {
+        JsonObject change = new JsonObject();
+        change.add("old", previous);
+        change.add("new", current);
+        return change;
+    }
+
+    private static JsonObject operation(String op, String path, JsonElement value) {
+        JsonObject operation = new JsonObject();
+        operation.addProperty("op", op);
+        operation.addProperty("path", path);
+        if (value != null) {
+            operation.add("value", value);
+        }
+        return operation;
+    }
+
+    /**
+     * Appends the key to a JSON Pointer (RFC 6901), escaping ~ and /
+     */
+    private static String pointer(String path, String key) {
+        return path + "/" + key.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,35 @@
+package org.geysermc.generator.output;
+
+import com.google.gson.JsonElement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes a mappings file. Implementations must be annotated with {@link OutputEncoder},
+ * have a no-args constructor, and be placed in this package to be found.
+ */
+public interface MappingsEncoder {
+
+    /**
+     * Encodes the mappings to the given stream.
+     *
+     * @param element the mappings to encode
+     * @param indent the indent to use, if the format is meant to be read by humans
+     * @param out the stream to write to. Should not be closed by the encoder.
+     */
+    void encode(JsonElement element, String indent, OutputStream out) throws IOException;
+
+    /**
+     * Encodes the mappings to the given stream, keeping the entries whose value is null if asked to.
+     * Formats that always keep them don't need to override this.
+     *
+     * @param element the mappings to encode
+     * @param indent the indent to use, if the format is meant to be read by humans
+     * @param serializeNulls whether to keep entries whose value is null
+     * @param out the stream to write to. Should not be closed by the encoder.
+     */
+    default void encode(JsonElement element, String indent, boolean serializeNulls, OutputStream out) throws IOException {
+        encode(element, indent, out);
+    }
+}
@@ -0,0 +1,197 @@
+package org.geysermc.generator.output;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.reflections.Reflections;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes mappings files through every selected {@link MappingsEncoder} in a single pass.
+ */
+public class MappingsWriter {
+    public static final String DEFAULT_INDENT = "  ";
+
+    private static final Gson GSON = new Gson();
+
+    private static final File DIFF_DIRECTORY = new File("diff");
+
+    private final Map<MappingsEncoder, String> encoders;
+    private final boolean diff;
+
+    private MappingsWriter(Map<MappingsEncoder, String> encoders, boolean diff) {
+        this.encoders = encoders;
+        this.diff = diff;
+    }
+
+    public static MappingsWriter create(Collection<String> names) {
+        return create(names, false);
+    }
+
+    /**
+     * Creates a writer using the encoders with the given names.
+     *
+     * @param names the names of the encoders, as set in {@link OutputEncoder#value()}
+     * @param diff whether to compare every file to its previous version before overwriting it, see {@link MappingsDiff}.
+     *             The previous version is read from the .json file, so this needs {@link PrettyJsonEncoder}.
+     * @return the writer
+     * @throws IllegalArgumentException if no encoder exists for one of the names, or if diff is set without pretty_json
+     */
+    public static MappingsWriter create(Collection<String> names, boolean diff) {
+        if (diff && !names.contains(PrettyJsonEncoder.NAME)) {
+            // Otherwise the .json is never overwritten, and the same changes would be reported on every run
+            throw new IllegalArgumentException("Comparing to the previous mappings needs the " + PrettyJsonEncoder.NAME + " encoder!");
+        }
+
+        Map<String, Class<?>> available = new HashMap<>();
+        Reflections ref = new Reflections("org.geysermc.generator.output");
+        for (Class<?> clazz : ref.getTypesAnnotatedWith(OutputEncoder.class)) {
+            available.put(clazz.getAnnotation(OutputEncoder.class).value(), clazz);
+        }
+
+        Map<MappingsEncoder, String> encoders = new LinkedHashMap<>();
+        for (String name : names) {
+            Class<?> clazz = available.get(name);
+            if (clazz == null) {
+                throw new IllegalArgumentException("Unknown encoder " + name + "! Available encoders: " + available.keySet());
+            }
+            try {
+                encoders.put((MappingsEncoder) clazz.getDeclaredConstructor().newInstance(), clazz.getAnnotation(OutputEncoder.class).extension());
+            } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+                throw new IllegalStateException("Unable to create encoder " + name, e);
+            }
+        }
+        return new MappingsWriter(encoders, diff);
+    }
+
+    public void write(File file, Object value) throws IOException {
+        write(file, value, DEFAULT_INDENT);
+    }
+
+    /**
+     * Writes the mappings with every encoder. Each encoder writes to the given file with its
+     * .json extension replaced by the extension of the encoder.
+     *
+     * @param file the JSON file the mappings have always been written to
+     * @param value the mappings, either as a {@link JsonElement} or an object to serialize with Gson
+     * @param indent the indent for human-readable formats
+     */
+    public void write(File file, Object value, String indent) throws IOException {
+        write(file, value, indent, false);
+    }
+
+    /**
+     * Writes the mappings with every encoder, like {@link #write(File, Object, String)}.
+     *
+     * @param serializeNulls whether to keep entries whose value is null, for files where a null means something
+     */
+    public void write(File file, Object value, String indent, boolean serializeNulls) throws IOException {
+        JsonElement element = value instanceof JsonElement jsonElement ? jsonElement : GSON.toJsonTree(value);
+        if (diff && file.exists()) {
+            writeDiff(file, element);
+        }
+
+        String path = file.getPath();
+        String basePath = path.endsWith(".json") ? path.substring(0, path.length() - ".json".length()) : path;
+        for (Map.Entry<MappingsEncoder, String> entry : encoders.entrySet()) {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(basePath + entry.getValue()))) {
+                entry.getKey().encode(element, indent, serializeNulls, out);
+            }
+        }
+    }
+
+    /**
+     * Replaces some top level entries of a mappings file that has already been written, adding any it doesn't have yet.
+     * The JSON file is updated in place, so every other entry stays exactly as it was. The other formats are
+     * encoded again from the result.
+     *
+     * @param file the JSON file the mappings have always been written to
+     * @param entries the entries to replace or add
+     * @throws IllegalStateException if the JSON files aren't written by this writer, see {@link #checkUpdatable()}
+     */
+    public void update(File file, JsonObject entries) throws IOException {
+        checkUpdatable();
+        String previous = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+        PrettyJsonEncoder prettyEncoder = new PrettyJsonEncoder();
+        String updated = JsonSplicer.index(previous).splice(entries, value -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                prettyEncoder.encode(value, DEFAULT_INDENT, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // The entries are one level into the file
+            return out.toString(StandardCharsets.UTF_8).replace("\n", "\n" + DEFAULT_INDENT);
+        }, DEFAULT_INDENT);
+
+        JsonElement element = JsonParser.parseString(updated);
+        if (diff) {
+            writeDiff(file, element);
+        }
+
+        String path = file.getPath();
+        String basePath = path.endsWith(".json") ? path.substring(0, path.length() - ".json".length()) : path;
+        for (Map.Entry<MappingsEncoder, String> entry : encoders.entrySet()) {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(basePath + entry.getValue()))) {
+                if (entry.getKey() instanceof PrettyJsonEncoder) {
+                    out.write(updated.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    entry.getKey().encode(element, DEFAULT_INDENT, out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that {@link #update(File, JsonObject)} can be used, so callers can fail before doing any work.
+     *
+     * @throws IllegalStateException if the JSON files aren't written by this writer
+     */
+    public void checkUpdatable() {
+        if (encoders.keySet().stream().noneMatch(encoder -> encoder instanceof PrettyJsonEncoder)) {
+            // The other formats are encoded from the JSON file, which would otherwise never be brought up to date
+            throw new IllegalStateException("Updating only some entries needs the " + PrettyJsonEncoder.NAME + " encoder!");
+        }
+    }
+
+    /**
+     * Compares the mappings to the JSON file that is about to be overwritten, and writes the change report and
+     * JSON Patch to the diff directory. The previous file is streamed rather than read whole, see {@link MappingsDiff}.
+     */
+    private void writeDiff(File file, JsonElement element) throws IOException {
+        MappingsDiff mappingsDiff;
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+            mappingsDiff = MappingsDiff.compare(reader, element);
+        }
+        System.out.println("Changes in " + file.getPath() + ": " + mappingsDiff.getSummary());
+        if (mappingsDiff.isEmpty()) {
+            return;
+        }
+
+        DIFF_DIRECTORY.mkdirs();
+        String name = file.getPath().replace(File.separatorChar, '_').replace(".json", "");
+        MappingsEncoder encoder = new PrettyJsonEncoder();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(DIFF_DIRECTORY, name + ".report.json")))) {
+            encoder.encode(mappingsDiff.getReport(), DEFAULT_INDENT, out);
+        }
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(new File(DIFF_DIRECTORY, name + ".patch.json")))) {
+            encoder.encode(mappingsDiff.getPatch(), DEFAULT_INDENT, out);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.geysermc.generator.output;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON without any whitespace, for consumers that still want JSON but not its size.
+ */
+@OutputEncoder(value = "minified_json", extension = ".min.json")
+public class MinifiedJsonEncoder implements MappingsEncoder {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final Gson NULLS_GSON = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
+
+    @Override
+    public void encode(JsonElement element, String indent, OutputStream out) throws IOException {
+        encode(element, indent, false, out);
+    }
+
+    @Override
+    public void encode(JsonElement element, String indent, boolean serializeNulls, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        (serializeNulls ? NULLS_GSON : GSON).toJson(element, writer);
+        writer.flush();
+    }
+}
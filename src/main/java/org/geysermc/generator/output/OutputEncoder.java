@@ -0,0 +1,23 @@
+package org.geysermc.generator.output;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@Retention(value = RetentionPolicy.RUNTIME)
+public @interface OutputEncoder {
+
+    /**
+     * The name used to select this encoder, for example with --encoders=pretty_json,binary
+     *
+     * @return the name of the encoder
+     */
+    String value();
+
+    /**
+     * The extension of the files written by this encoder. This replaces the .json extension
+     * of the mappings file being written.
+     *
+     * @return the file extension, including the leading dot
+     */
+    String extension();
+}
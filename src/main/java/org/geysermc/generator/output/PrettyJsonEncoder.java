@@ -0,0 +1,38 @@
+package org.geysermc.generator.output;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The JSON the mappings have always been written as; the easiest to review in a diff.
+ */
+@OutputEncoder(value = PrettyJsonEncoder.NAME, extension = ".json")
+public class PrettyJsonEncoder implements MappingsEncoder {
+    public static final String NAME = "pretty_json";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final Gson NULLS_GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().serializeNulls().create();
+
+    @Override
+    public void encode(JsonElement element, String indent, OutputStream out) throws IOException {
+        encode(element, indent, false, out);
+    }
+
+    @Override
+    public void encode(JsonElement element, String indent, boolean serializeNulls, OutputStream out) throws IOException {
+        Gson gson = serializeNulls ? NULLS_GSON : GSON;
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        jsonWriter.setIndent(indent);
+        gson.toJson(element, jsonWriter);
+        jsonWriter.flush();
+    }
+}
@@ -0,0 +1,45 @@
+package org.geysermc.generator.output;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns every distinct string an index, in the order the strings are first seen, so that
+ * binary outputs only have to store each string once.
+ */
+public class StringTable {
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * @return the index of the string, adding it to the table if it is not there yet
+     */
+    public int intern(String string) {
+        Integer index = indexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            indexes.put(string, index);
+            strings.add(string);
+        }
+        return index;
+    }
+
+    /**
+     * @return the index of the string, or -1 if the string is null
+     */
+    public int internNullable(String string) {
+        return string == null ? -1 : intern(string);
+    }
+
+    public int size() {
+        return strings.size();
+    }
+
+    public List<String> getStrings() {
+        return Collections.unmodifiableList(strings);
+    }
+}